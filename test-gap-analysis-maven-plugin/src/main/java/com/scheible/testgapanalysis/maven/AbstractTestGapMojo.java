@@ -1,10 +1,14 @@
 package com.scheible.testgapanalysis.maven;
 
+import com.scheible.testgapanalysis.common.ParallelUtils;
+import com.scheible.testgapanalysis.jacoco.JaCoCoExecFileParser;
 import com.scheible.testgapanalysis.jacoco.JaCoCoReportParser;
+import com.scheible.testgapanalysis.parser.JavaParser;
 
 import java.io.File;
 import java.nio.file.Path;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
 
 import org.apache.maven.plugin.AbstractMojo;
@@ -31,16 +35,49 @@ public abstract class AbstractTestGapMojo extends AbstractMojo {
 	@Parameter(defaultValue = "${project.build.testOutputDirectory}")  // ./taget/test-classes
 	protected File testOutputDir;
 
+	@Parameter(property = "test-gap-analysis.parallelism") // defaults to the number of available processors
+	protected Integer parallelism;
+
+	@Parameter(property = "test-gap-analysis.parsed-method-cache-dir") // no caching if not set
+	protected File parsedMethodCacheDir;
+
+	@Parameter(property = "test-gap-analysis.coverage-snapshot-file") // no snapshot if not set
+	protected File coverageSnapshotFile;
+
+	protected int getParallelism() {
+		return this.parallelism != null ? this.parallelism : ParallelUtils.getDefaultParallelism();
+	}
+
+	protected JavaParser createJavaParser() {
+		return TestGapAnalysisRunner.createJavaParser(Optional.ofNullable(this.parsedMethodCacheDir));
+	}
+
+	protected JaCoCoReportParser createJaCoCoReportParser() {
+		return TestGapAnalysisRunner.createJaCoCoReportParser(Optional.ofNullable(this.coverageSnapshotFile),
+				getParallelism());
+	}
+
 	/**
 	 * Find all JaCoCo reports that are in the 'target' dir but not in 'classes' or 'test-classes'.
 	 */
 	protected Set<File> findRelevantJaCoCoReportFiles() {
+		return withoutOutputDirFiles(JaCoCoReportParser.findJaCoCoReportFiles(this.buildDir));
+	}
+
+	/**
+	 * Find all JaCoCo execution data files that are in the 'target' dir but not in 'classes' or 'test-classes'.
+	 */
+	protected Set<File> findRelevantJaCoCoExecFiles() {
+		return withoutOutputDirFiles(JaCoCoExecFileParser.findJaCoCoExecFiles(this.buildDir));
+	}
+
+	private Set<File> withoutOutputDirFiles(Set<File> files) {
 		Set<File> result = new HashSet<>();
 
 		Path outputDirAsPath = this.outputDir.toPath();
 		Path testOutputDirAsPath = this.testOutputDir.toPath();
 
-		JaCoCoReportParser.findJaCoCoReportFiles(this.buildDir).forEach(file -> {
+		files.forEach(file -> {
 			Path fileAsPath = file.toPath();
 			if (!fileAsPath.startsWith(outputDirAsPath) && !fileAsPath.startsWith(testOutputDirAsPath)) {
 				result.add(file);
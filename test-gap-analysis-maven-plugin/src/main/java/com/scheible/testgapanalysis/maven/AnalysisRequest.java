@@ -0,0 +1,55 @@
+package com.scheible.testgapanalysis.maven;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * All parameters of a single test gap analysis. The request is either performed in the build itself or sent (as a
+ * single line of JSON) to a test gap analysis daemon. Therefore all files are plain (absolute) paths.
+ *
+ * @author sj
+ */
+class AnalysisRequest {
+
+	String baseDir;
+	String sourceDir;
+	String buildDir;
+	String outputDir;
+	Set<String> coverageFiles;
+
+	int parallelism;
+	String parsedMethodCacheDir;
+	String coverageSnapshotFile;
+	boolean execFileCoverage;
+	boolean detectRenames;
+	boolean hunkFilter;
+	String refTimeCacheFile;
+
+	String referenceCommitHash;
+	String previousBranchRegEx;
+	String previousTagRegEx;
+
+	/**
+	 * Requests with the same configuration key can be performed by the same (warm) analysis instance.
+	 */
+	String getConfigurationKey() {
+		return Arrays.asList(this.parallelism, this.parsedMethodCacheDir, this.coverageSnapshotFile,
+				this.execFileCoverage, this.outputDir, this.detectRenames, this.hunkFilter, this.refTimeCacheFile)
+				.toString();
+	}
+
+	static String toPath(File file) {
+		return file != null ? file.getAbsolutePath() : null;
+	}
+
+	static Optional<File> toFile(String path) {
+		return Optional.ofNullable(path).map(File::new);
+	}
+
+	Set<File> getCoverageFiles() {
+		return this.coverageFiles.stream().map(File::new).collect(Collectors.toSet());
+	}
+}
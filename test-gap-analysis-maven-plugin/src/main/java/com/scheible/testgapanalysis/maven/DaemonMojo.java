@@ -0,0 +1,31 @@
+package com.scheible.testgapanalysis.maven;
+
+import java.io.IOException;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Starts a test gap analysis daemon that runs until the process is stopped. The 'perform' goal delegates to it
+ * when the same daemon port is configured there.
+ *
+ * @author sj
+ */
+@Mojo(name = "daemon", requiresProject = false)
+public class DaemonMojo extends AbstractMojo {
+
+	@Parameter(property = "test-gap-analysis.daemon-port", defaultValue = "" + TestGapAnalysisDaemon.DEFAULT_PORT)
+	private int daemonPort;
+
+	@Override
+	public void execute() throws MojoExecutionException {
+		try {
+			new TestGapAnalysisDaemon(this.daemonPort, getLog()).run();
+		} catch (IOException ex) {
+			throw new MojoExecutionException("Can't run the test gap analysis daemon on port " + this.daemonPort + "!",
+					ex);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.scheible.testgapanalysis.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.AclEntry;
+import java.nio.file.attribute.AclEntryPermission;
+import java.nio.file.attribute.AclEntryType;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * The token that authenticates the requests sent to a test gap analysis daemon. The daemon writes a random token
+ * to a file in the user home that only its owner can read and a client has to send it with every request. That way
+ * no other local user can make the daemon read or write files with the permissions of its owner.
+ *
+ * @author sj
+ */
+abstract class DaemonTokenUtils {
+
+	private static final int TOKEN_BYTE_COUNT = 32;
+
+	private DaemonTokenUtils() {
+	}
+
+	static File getTokenFile(int port) {
+		return new File(new File(System.getProperty("user.home"), ".test-gap-analysis"), "daemon-" + port + ".token");
+	}
+
+	/**
+	 * Creates a new random token and replaces the token file of the port.
+	 */
+	static String create(int port) throws IOException {
+		byte[] tokenBytes = new byte[TOKEN_BYTE_COUNT];
+		new SecureRandom().nextBytes(tokenBytes);
+		String token = Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes);
+
+		writeOwnerOnly(getTokenFile(port).toPath(), token);
+		return token;
+	}
+
+	/**
+	 * The token of the daemon on the port, empty if no daemon of the current user was started on it.
+	 */
+	static Optional<String> read(int port) throws IOException {
+		Path tokenFile = getTokenFile(port).toPath();
+		return Files.exists(tokenFile)
+				? Optional.of(new String(Files.readAllBytes(tokenFile), StandardCharsets.UTF_8).trim())
+				: Optional.empty();
+	}
+
+	/**
+	 * Compares in constant time, the time of a failed comparison doesn't reveal the length of the matching prefix.
+	 */
+	static boolean matches(String token, String candidate) {
+		return candidate != null && MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+				candidate.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * The file is written to a temporary file that only the owner can access first and then moved. That way the
+	 * token is never readable by anybody else, not even for a moment.
+	 */
+	private static void writeOwnerOnly(Path file, String content) throws IOException {
+		Files.createDirectories(file.getParent(), ownerOnly("rwx------"));
+
+		Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+		Files.deleteIfExists(tempFile);
+		Files.createFile(tempFile, ownerOnly("rw-------"));
+
+		AclFileAttributeView aclView = Files.getFileAttributeView(tempFile, AclFileAttributeView.class);
+		if (aclView != null) { // for example on Windows, that has no POSIX file permissions
+			aclView.setAcl(Collections.singletonList(AclEntry.newBuilder().setType(AclEntryType.ALLOW)
+					.setPrincipal(aclView.getOwner()).setPermissions(AclEntryPermission.values()).build()));
+		}
+
+		Files.write(tempFile, content.getBytes(StandardCharsets.UTF_8));
+		Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static FileAttribute<?>[] ownerOnly(String posixPermissions) {
+		return FileSystems.getDefault().supportedFileAttributeViews().contains("posix")
+				? new FileAttribute<?>[] {
+						PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(posixPermissions))}
+				: new FileAttribute<?>[0];
+	}
+}
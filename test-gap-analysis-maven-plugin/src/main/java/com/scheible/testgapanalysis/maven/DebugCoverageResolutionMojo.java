@@ -3,8 +3,6 @@ package com.scheible.testgapanalysis.maven;
 import com.scheible.testgapanalysis.debug.DebugCoverageResolution;
 import com.scheible.testgapanalysis.debug.DebugCoverageResolutionReport;
 import com.scheible.testgapanalysis.jacoco.InstrumentedMethod;
-import com.scheible.testgapanalysis.jacoco.JaCoCoReportParser;
-import com.scheible.testgapanalysis.parser.JavaParser;
 import com.scheible.testgapanalysis.parser.ParsedMethod;
 import java.util.Comparator;
 import java.util.Map.Entry;
@@ -24,8 +22,8 @@ public class DebugCoverageResolutionMojo extends AbstractTestGapMojo {
 	@Override
 	public void execute() throws MojoExecutionException, MojoFailureException {
 		if (this.buildDir.exists()) {
-			DebugCoverageResolution debugCoverageResolution = new DebugCoverageResolution(new JavaParser(), 
-					new JaCoCoReportParser());
+			DebugCoverageResolution debugCoverageResolution = new DebugCoverageResolution(createJavaParser(), 
+					createJaCoCoReportParser(), getParallelism());
 			DebugCoverageResolutionReport report = debugCoverageResolution.run(this.baseDir, this.sourceDir,
 					findRelevantJaCoCoReportFiles());
 
@@ -0,0 +1,120 @@
+package com.scheible.testgapanalysis.maven;
+
+import com.google.gson.Gson;
+import com.scheible.testgapanalysis.analysis.testgap.TestGapReport;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Long-running local test gap analysis service. It keeps a warm {@link TestGapAnalysisRunner}, that way repeated
+ * analyses of the same workspace reuse the already parsed methods, the coverage and the opened repositories.
+ * <p>
+ * The protocol is line based (UTF-8) and only available on the loopback interface: For every connection the
+ * client sends a line with the token of the daemon (see {@link DaemonTokenUtils}) and a line with the JSON of an
+ * {@link AnalysisRequest}. The daemon answers with any number of {@code INFO <line>} lines (the log of the report)
+ * and finally a single {@code OK} or {@code ERROR <message>} line. Connections are handled one after another, a
+ * client that doesn't send its request in time is disconnected.
+ *
+ * @author sj
+ */
+class TestGapAnalysisDaemon {
+
+	static final String INFO_PREFIX = "INFO ";
+	static final String OK = "OK";
+	static final String ERROR_PREFIX = "ERROR ";
+
+	static final int DEFAULT_PORT = 7913;
+
+	private static final int READ_TIMEOUT_MILLIS = 10_000;
+	private static final int MAX_TOKEN_LENGTH = 256;
+
+	private final int port;
+	private final Log log;
+	private final Gson gson = new Gson();
+
+	TestGapAnalysisDaemon(int port, Log log) {
+		this.port = port;
+		this.log = log;
+	}
+
+	/**
+	 * Serves requests until the process is stopped or the server socket fails ({@code accept()} can't be
+	 * interrupted). A new token is created once the port is bound, the previous token of the port is then invalid.
+	 */
+	void run() throws IOException {
+		try (ServerSocket serverSocket = new ServerSocket(this.port, 50, InetAddress.getLoopbackAddress());
+				TestGapAnalysisRunner runner = new TestGapAnalysisRunner(true)) {
+			String token = DaemonTokenUtils.create(this.port);
+			DaemonTokenUtils.getTokenFile(this.port).deleteOnExit();
+			this.log.info(String.format("Test gap analysis daemon is listening on port %d, its token is stored in "
+					+ "'%s'.", this.port, DaemonTokenUtils.getTokenFile(this.port)));
+
+			while (true) {
+				try (Socket socket = serverSocket.accept()) {
+					socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+					handle(socket, token, runner);
+				} catch (IOException | UncheckedIOException ex) {
+					this.log.warn("Can't handle test gap analysis request.", ex);
+				}
+			}
+		}
+	}
+
+	private void handle(Socket socket, String token, TestGapAnalysisRunner runner) throws IOException {
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+		PrintWriter writer = new PrintWriter(
+				new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)));
+
+		if (!DaemonTokenUtils.matches(token, readLine(reader, MAX_TOKEN_LENGTH))) {
+			this.log.warn("Rejected a test gap analysis request with an invalid token.");
+			writer.println(ERROR_PREFIX + "Invalid token.");
+			writer.flush();
+			return;
+		}
+
+		try {
+			AnalysisRequest request = this.gson.fromJson(reader.readLine(), AnalysisRequest.class);
+			long start = System.currentTimeMillis();
+
+			TestGapReport report = runner.run(request);
+			TestGapReportUtils.log(report, line -> writer.println(INFO_PREFIX + line));
+			File reportFile = TestGapReportUtils.writeJson(report, new File(request.buildDir));
+			writer.println(OK);
+
+			this.log.info(String.format("Analyzed '%s' in %d ms, report written to '%s'.", request.sourceDir,
+					System.currentTimeMillis() - start, reportFile));
+		} catch (IOException | RuntimeException ex) {
+			this.log.warn("Test gap analysis failed.", ex);
+			writer.println(ERROR_PREFIX + String.valueOf(ex.getMessage()).replace('\n', ' '));
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Reads a line of at most the given length, that way an unauthenticated client can't make the daemon buffer
+	 * an arbitrarily long line. Returns {@code null} if the line is longer or the stream ends before the line.
+	 */
+	private static String readLine(BufferedReader reader, int maxLength) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int character = reader.read();
+		while (character >= 0 && character != '\n' && line.length() <= maxLength) {
+			line.append((char) character);
+			character = reader.read();
+		}
+		return character == '\n' ? line.toString().trim() : null;
+	}
+}
@@ -1,24 +1,20 @@
 package com.scheible.testgapanalysis.maven;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.scheible.testgapanalysis.analysis.testgap.TestGapAnalysis;
 import com.scheible.testgapanalysis.analysis.testgap.TestGapReport;
-import com.scheible.testgapanalysis.analysis.Analysis;
-import com.scheible.testgapanalysis.analysis.testgap.CoverageReportMethod;
-import com.scheible.testgapanalysis.analysis.testgap.NewOrChangedFile;
-import com.scheible.testgapanalysis.analysis.testgap.TestGapMethod;
-import com.scheible.testgapanalysis.git.GitRepoChangeScanner;
-import com.scheible.testgapanalysis.jacoco.JaCoCoReportParser;
-import com.scheible.testgapanalysis.parser.JavaParser;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.util.Comparator;
-import java.util.Map.Entry;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
-import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -41,108 +37,114 @@ public class TestGapAnalysisMojo extends AbstractTestGapMojo {
 	@Parameter(property = "test-gap-analysis.previous-tag-regex")
 	private String previousTagRegEx;
 
+	@Parameter(property = "test-gap-analysis.exec-file-coverage", defaultValue = "false") // instead of jacoco.xml
+	private boolean execFileCoverage;
+
+	@Parameter(property = "test-gap-analysis.detect-renames", defaultValue = "false")
+	private boolean detectRenames;
+
+	@Parameter(property = "test-gap-analysis.hunk-filter", defaultValue = "false")
+	private boolean hunkFilter;
+
+	@Parameter(property = "test-gap-analysis.ref-time-cache-file") // no caching if not set
+	private File refTimeCacheFile;
+
+	@Parameter(property = "test-gap-analysis.daemon-port") // analysis is performed in the build if not set
+	private Integer daemonPort;
+
 	@Override
 	public void execute() throws MojoExecutionException, MojoFailureException {
 		if (this.buildDir.exists()) {
-			TestGapAnalysis testGapAnalysis = new TestGapAnalysis(new Analysis(new JavaParser()),
-					new JaCoCoReportParser(), new GitRepoChangeScanner());
-			TestGapReport report = testGapAnalysis.run(this.baseDir, this.sourceDir,
-					findRelevantJaCoCoReportFiles(), Optional.ofNullable(this.referenceCommitHash),
-					Optional.ofNullable(previousBranchRegEx), Optional.ofNullable(previousTagRegEx));
-
-			logReport(report);
-			writeJsonReport(report);
+			AnalysisRequest request = createRequest();
+
+			if (this.daemonPort == null || !delegateToDaemon(request)) {
+				try (TestGapAnalysisRunner runner = new TestGapAnalysisRunner(false)) {
+					TestGapReport report = runner.run(request);
+					TestGapReportUtils.log(report, getLog()::info);
+					writeJsonReport(report);
+				}
+			}
 		} else {
 			getLog().debug(String.format("Skipping test gap analysis because the '%s' directory does not exist and "
 					+ "therefore no JaCoCo coverage reports are available.", this.buildDir));
 		}
 	}
 
-	private void logReport(TestGapReport report) {
-		getLog().info(String.format("Performing test gap analysis in '%s'.", report.getWorkDir()));
-
-		if (report.getJaCoCoCoverageCount() == 0) {
-			getLog().info("No coverage info available!");
-		} else {
-			getLog().info(String.format("Found coverage info about %d methods in %s.", report.getJaCoCoCoverageCount(),
-					report.getJaCoCoReportFiles()));
-		}
-
-		String oldCommitHash = report.getPreviousState().substring(0, 7);
-		getLog().info(String.format("Comparing the %s", report.getCurrentState()
-				.map(newCommitHash -> "repository head (" + newCommitHash.substring(0, 7)
-				+ ") with reference commit " + oldCommitHash + ".")
-				.orElseGet(() -> "working copy changes with the repository head (" + oldCommitHash + ").")));
-
-		if (report.getNewOrChangedFiles().isEmpty()) {
-			getLog().info("No new or changed files!");
-		} else {
-			getLog().info(String.format("Found %d new or changed Java files:",
-					report.getNewOrChangedFiles().size()));
-			report.getNewOrChangedFiles().stream().sorted(Comparator.comparing(NewOrChangedFile::getName))
-					.map(Object::toString).forEach(newOrChangedFile -> getLog().info(" - " + newOrChangedFile));
-		}
-
-		getLog().info("Method blacklist (excluded from coverage check): all getter and setter");
-
-		getLog().info(String.format("Test gap: %d%%", (int)(report.getTestGap() * 100)));
-		
-		if (!report.getCoveredMethods().isEmpty()) {
-			getLog().info("Covered methods:");
-			report.getCoveredMethods().stream().sorted(getTestGapMethodComparator())
-					.map(Object::toString).forEach(coveredMethod -> getLog().info(" - " + coveredMethod));
-		}
-
-		if (!report.getUncoveredMethods().isEmpty()) {
-			getLog().info("Uncovered methods:");
-			report.getUncoveredMethods().stream().sorted(getTestGapMethodComparator())
-					.map(Object::toString).forEach(uncoveredMethod -> getLog().info(" - " + uncoveredMethod));
-		}
-
-		if (!report.getEmptyMethods().isEmpty()) {
-			getLog().info("Empty methods (no coverage information available):");
-			report.getEmptyMethods().stream().sorted(getTestGapMethodComparator())
-					.map(Object::toString).forEach(emptyMethod -> getLog().info(" - " + emptyMethod));
-		}
-
-		if (!report.getAmbiguouslyResolvedCoverage().isEmpty()) {
-			getLog().info("Ambiguously resolved methods (multiple methods were resolved to a single coverage information):");
-			report.getAmbiguouslyResolvedCoverage().entrySet().stream()
-					.sorted(Comparator.comparing(TestGapAnalysisMojo::getCoverageReportMethodCoveredClassName)
-							.thenComparing(TestGapAnalysisMojo::getCoverageReportMethodMethodLine))
-					.forEach(e -> getLog().info(String.format(" - %s -> %s", e.getKey(), e.getValue())));
-		}
+	AnalysisRequest createRequest() {
+		AnalysisRequest request = new AnalysisRequest();
+		request.baseDir = AnalysisRequest.toPath(this.baseDir);
+		request.sourceDir = AnalysisRequest.toPath(this.sourceDir);
+		request.buildDir = AnalysisRequest.toPath(this.buildDir);
+		request.outputDir = AnalysisRequest.toPath(this.outputDir);
+		request.coverageFiles = (this.execFileCoverage
+				? findRelevantJaCoCoExecFiles()
+				: findRelevantJaCoCoReportFiles()).stream().map(AnalysisRequest::toPath).collect(Collectors.toSet());
+
+		request.parallelism = getParallelism();
+		request.parsedMethodCacheDir = AnalysisRequest.toPath(this.parsedMethodCacheDir);
+		request.coverageSnapshotFile = AnalysisRequest.toPath(this.coverageSnapshotFile);
+		request.execFileCoverage = this.execFileCoverage;
+		request.detectRenames = this.detectRenames;
+		request.hunkFilter = this.hunkFilter;
+		request.refTimeCacheFile = AnalysisRequest.toPath(this.refTimeCacheFile);
+
+		request.referenceCommitHash = this.referenceCommitHash;
+		request.previousBranchRegEx = this.previousBranchRegEx;
+		request.previousTagRegEx = this.previousTagRegEx;
+		return request;
+	}
 
-		if (!report.getUnresolvableMethods().isEmpty()) {
-			getLog().info("Unresolvable methods (coverage information couldn't be found):");
-			report.getUnresolvableMethods().stream().sorted(getTestGapMethodComparator())
-					.map(Object::toString).forEach(unresolvableMethod -> getLog().info(" - " + unresolvableMethod));
+	/**
+	 * Returns {@code false} if no daemon of the current user is listening on the port, the analysis is then performed
+	 * in the build.
+	 */
+	private boolean delegateToDaemon(AnalysisRequest request) throws MojoFailureException {
+		try {
+			Optional<String> token = DaemonTokenUtils.read(this.daemonPort);
+			if (!token.isPresent()) {
+				getLog().warn(String.format("No test gap analysis daemon was started on port %d, performing the "
+						+ "analysis in the build.", this.daemonPort));
+				return false;
+			}
+
+			sendToDaemon(token.get(), request);
+			return true;
+		} catch (ConnectException ex) {
+			getLog().warn(String.format("No test gap analysis daemon is listening on port %d, performing the "
+					+ "analysis in the build.", this.daemonPort));
+			return false;
+		} catch (IOException ex) {
+			throw new MojoFailureException("Can't communicate with the test gap analysis daemon!", ex);
 		}
 	}
 
-	private static Comparator<TestGapMethod> getTestGapMethodComparator() {
-		return Comparator.comparing(TestGapMethod::getTopLevelTypeFqn)
-				.thenComparing(Comparator.comparing(TestGapMethod::getSourceLine));
-	}
-	
-	private static String getCoverageReportMethodCoveredClassName(Entry<CoverageReportMethod, Set<TestGapMethod>> entry) {
-		return entry.getKey().getCoveredClassName();
+	private void sendToDaemon(String token, AnalysisRequest request) throws IOException, MojoFailureException {
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.daemonPort);
+				PrintWriter writer = new PrintWriter(
+						new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+				BufferedReader reader = new BufferedReader(
+						new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+			writer.println(token);
+			writer.println(new Gson().toJson(request));
+
+			String line;
+			while ((line = reader.readLine()) != null && line.startsWith(TestGapAnalysisDaemon.INFO_PREFIX)) {
+				getLog().info(line.substring(TestGapAnalysisDaemon.INFO_PREFIX.length()));
+			}
+
+			if (!TestGapAnalysisDaemon.OK.equals(line)) {
+				throw new MojoFailureException("Test gap analysis daemon failed: " + (line != null
+						? line.substring(Math.min(TestGapAnalysisDaemon.ERROR_PREFIX.length(), line.length()))
+						: "no response"));
+			}
+		}
 	}
 
-	private static int getCoverageReportMethodMethodLine(Entry<CoverageReportMethod, Set<TestGapMethod>> entry) {
-		return entry.getKey().getCoveredMethodLine();
-	}	
-
 	private void writeJsonReport(TestGapReport report) throws MojoExecutionException {
-		File reportFile = new File(this.buildDir, "test-gap-report.json");
-		Gson gson = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting()
-				.registerTypeAdapter(Optional.class, new OptionalTypeAdapter()).create();
-
 		try {
-			Files.write(reportFile.toPath(), gson.toJson(report).getBytes());
+			TestGapReportUtils.writeJson(report, this.buildDir);
 		} catch (IOException ex) {
-			throw new MojoExecutionException("Can't write test gap report to '" + reportFile + "'!", ex);
+			throw new MojoExecutionException("Can't write test gap report to '" + this.buildDir + "'!", ex);
 		}
 	}
 }
-
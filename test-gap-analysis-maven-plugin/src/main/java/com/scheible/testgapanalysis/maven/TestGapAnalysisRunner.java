@@ -0,0 +1,125 @@
+package com.scheible.testgapanalysis.maven;
+
+import com.scheible.testgapanalysis.analysis.Analysis;
+import com.scheible.testgapanalysis.analysis.Analysis.HunkFilter;
+import com.scheible.testgapanalysis.analysis.testgap.TestGapAnalysis;
+import com.scheible.testgapanalysis.analysis.testgap.TestGapReport;
+import com.scheible.testgapanalysis.common.FilesUtils;
+import com.scheible.testgapanalysis.git.GitRepoChangeScanner;
+import com.scheible.testgapanalysis.git.GitRepoChangeScanner.RenameDetection;
+import com.scheible.testgapanalysis.git.GitSession;
+import com.scheible.testgapanalysis.jacoco.CachingJaCoCoReportParser;
+import com.scheible.testgapanalysis.jacoco.CoverageReader;
+import com.scheible.testgapanalysis.jacoco.JaCoCoExecFileParser;
+import com.scheible.testgapanalysis.jacoco.JaCoCoReportParser;
+import com.scheible.testgapanalysis.jacoco.JaCoCoReportParser.Engine;
+import com.scheible.testgapanalysis.jacoco.MemoizingCoverageReader;
+import com.scheible.testgapanalysis.jacoco.resolver.IncrementalCoverageResolver;
+import com.scheible.testgapanalysis.parser.CachingJavaParser;
+import com.scheible.testgapanalysis.parser.JavaParser;
+import com.scheible.testgapanalysis.parser.MemoizingJavaParser;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+/**
+ * Performs analysis requests. A warm runner keeps the analysis instances (with the parsed methods, the coverage and
+ * the resolution of every top level type in memory) and the opened Git repositories between the requests, a cold
+ * one starts from zero for every request. A warm runner keeps the analysis instances of at most {@value #MAX_WARM_ANALYSES} configurations, the least
+ * recently used one is dropped first. A runner is not thread-safe, requests have to be performed one after
+ * another.
+ *
+ * @author sj
+ */
+class TestGapAnalysisRunner implements AutoCloseable {
+
+	static final int MAX_WARM_ANALYSES = 4;
+
+	private final boolean warm;
+
+	private final Map<String, TestGapAnalysis> testGapAnalyses = new LinkedHashMap<String, TestGapAnalysis>(16,
+			0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Entry<String, TestGapAnalysis> eldest) {
+			return size() > MAX_WARM_ANALYSES;
+		}
+	};
+	private final Map<String, GitSession> gitSessions = new HashMap<>();
+
+	TestGapAnalysisRunner(boolean warm) {
+		this.warm = warm;
+	}
+
+	TestGapReport run(AnalysisRequest request) {
+		TestGapAnalysis testGapAnalysis = this.warm
+				? this.testGapAnalyses.computeIfAbsent(request.getConfigurationKey(), key -> create(request))
+				: create(request);
+
+		String sourceDir = FilesUtils.toCanonical(new File(request.sourceDir)).getPath();
+		GitSession gitSession = this.gitSessions.computeIfAbsent(sourceDir,
+				key -> GitSession.open(new File(key).toPath()));
+		try {
+			return testGapAnalysis.run(gitSession, new File(request.baseDir), new File(request.sourceDir),
+					request.getCoverageFiles(), Optional.ofNullable(request.referenceCommitHash),
+					Optional.ofNullable(request.previousBranchRegEx), Optional.ofNullable(request.previousTagRegEx));
+		} catch (RuntimeException ex) {
+			closeGitSession(sourceDir); // the next request reopens the repository
+			throw ex;
+		} finally {
+			if (this.warm) {
+				gitSession.releaseParsedObjects();
+			} else {
+				closeGitSession(sourceDir);
+			}
+		}
+	}
+
+	private TestGapAnalysis create(AnalysisRequest request) {
+		JavaParser javaParser = createJavaParser(AnalysisRequest.toFile(request.parsedMethodCacheDir));
+		CoverageReader coverageReader = request.execFileCoverage
+				? new JaCoCoExecFileParser(new File(request.outputDir))
+				: createJaCoCoReportParser(AnalysisRequest.toFile(request.coverageSnapshotFile), request.parallelism);
+
+		Analysis analysis = new Analysis(this.warm ? new MemoizingJavaParser(javaParser) : javaParser,
+				request.parallelism, request.hunkFilter ? HunkFilter.ENABLED : HunkFilter.DISABLED);
+		GitRepoChangeScanner gitRepoChangeScanner = new GitRepoChangeScanner(
+				request.detectRenames ? RenameDetection.ENABLED : RenameDetection.DISABLED, request.parallelism,
+				AnalysisRequest.toFile(request.refTimeCacheFile));
+
+		// a warm analysis only resolves the top level types again whose methods or coverage changed
+		return this.warm
+				? new TestGapAnalysis(analysis, new MemoizingCoverageReader(coverageReader), gitRepoChangeScanner,
+						new IncrementalCoverageResolver(request.parallelism))
+				: new TestGapAnalysis(analysis, coverageReader, gitRepoChangeScanner);
+	}
+
+	static JavaParser createJavaParser(Optional<File> parsedMethodCacheDir) {
+		return parsedMethodCacheDir.isPresent() ? new CachingJavaParser(parsedMethodCacheDir.get()) : new JavaParser();
+	}
+
+	static JaCoCoReportParser createJaCoCoReportParser(Optional<File> coverageSnapshotFile, int parallelism) {
+		return coverageSnapshotFile.isPresent()
+				? new CachingJaCoCoReportParser(coverageSnapshotFile.get(), Engine.STREAMING, parallelism)
+				: new JaCoCoReportParser(Engine.STREAMING, parallelism);
+	}
+
+	private void closeGitSession(String sourceDir) {
+		GitSession gitSession = this.gitSessions.remove(sourceDir);
+		if (gitSession != null) {
+			gitSession.close();
+		}
+	}
+
+	@Override
+	public void close() {
+		this.gitSessions.values().forEach(GitSession::close);
+		this.gitSessions.clear();
+	}
+}
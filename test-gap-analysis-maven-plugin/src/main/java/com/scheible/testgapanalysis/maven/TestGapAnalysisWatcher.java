@@ -0,0 +1,173 @@
+package com.scheible.testgapanalysis.maven;
+
+import com.scheible.testgapanalysis.analysis.testgap.TestGapReport;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Performs the analysis again whenever a Java source in the source directory or one of the coverage files changes.
+ * A warm {@link TestGapAnalysisRunner} is used, that way only the touched sources are parsed again and only the
+ * coverage of their top level types is read again. Only the top level types whose new or changed methods or whose
+ * coverage changed are resolved again. The change set itself is still determined with Git for every analysis. The
+ * JSON report is rewritten after every analysis and therefore always reflects the current working tree.
+ * <p>
+ * Events are collected until no further event arrives for a short quiet period, a save of several files (or an IDE
+ * writing a file in multiple steps) results in a single analysis.
+ *
+ * @author sj
+ */
+class TestGapAnalysisWatcher {
+
+	private static final long QUIET_PERIOD_MILLIS = 250;
+
+	private final Supplier<AnalysisRequest> requestFactory;
+	private final Log log;
+
+	private final Map<WatchKey, Path> watchedDirs = new HashMap<>();
+
+	TestGapAnalysisWatcher(Supplier<AnalysisRequest> requestFactory, Log log) {
+		this.requestFactory = requestFactory;
+		this.log = log;
+	}
+
+	/**
+	 * Watches until the thread is interrupted.
+	 */
+	void run() throws IOException, InterruptedException {
+		try (WatchService watchService = FileSystems.getDefault().newWatchService();
+				TestGapAnalysisRunner runner = new TestGapAnalysisRunner(true)) {
+			AnalysisRequest request = this.requestFactory.get();
+			registerRecursively(watchService, Paths.get(request.sourceDir), Paths.get(request.buildDir));
+
+			while (!Thread.currentThread().isInterrupted()) {
+				analyze(runner, request);
+
+				// coverage files that were created in the meantime are watched from now on
+				for (File coverageFile : request.getCoverageFiles()) {
+					register(watchService, coverageFile.getAbsoluteFile().toPath().getParent());
+				}
+				this.log.info(String.format("Watching '%s' for changes...", request.sourceDir));
+
+				awaitRelevantChange(watchService, request);
+				request = nextRequest(request);
+			}
+		}
+	}
+
+	private AnalysisRequest nextRequest(AnalysisRequest previousRequest) {
+		try {
+			return this.requestFactory.get();
+		} catch (UncheckedIOException ex) { // for example a 'mvn clean' in the meantime
+			this.log.warn("Can't find the coverage files, using the previous ones.", ex);
+			return previousRequest;
+		}
+	}
+
+	private void analyze(TestGapAnalysisRunner runner, AnalysisRequest request) {
+		long start = System.currentTimeMillis();
+		try {
+			TestGapReport report = runner.run(request);
+			TestGapReportUtils.log(report, this.log::info);
+			File reportFile = TestGapReportUtils.writeJson(report, new File(request.buildDir));
+
+			this.log.info(String.format("Analyzed in %d ms, report written to '%s'.",
+					System.currentTimeMillis() - start, reportFile));
+		} catch (IOException | RuntimeException ex) {
+			this.log.warn("Test gap analysis failed.", ex);
+		}
+	}
+
+	private void awaitRelevantChange(WatchService watchService, AnalysisRequest request)
+			throws IOException, InterruptedException {
+		Path sourceDir = Paths.get(request.sourceDir);
+		Path buildDir = Paths.get(request.buildDir);
+		Set<Path> coverageFiles = request.getCoverageFiles().stream().map(file -> file.getAbsoluteFile().toPath())
+				.collect(Collectors.toSet());
+
+		boolean relevantChange = false;
+		WatchKey key = watchService.take();
+		while (key != null) {
+			Path dir = this.watchedDirs.get(key);
+			for (WatchEvent<?> event : key.pollEvents()) {
+				Path path = event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null
+						? null
+						: dir.resolve((Path) event.context());
+
+				if (path == null || coverageFiles.contains(path) || isCoverageFile(path)) {
+					relevantChange = true;
+				} else if (path.startsWith(sourceDir) && !isIgnored(path, buildDir)) {
+					if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+						registerRecursively(watchService, path, buildDir);
+					}
+					relevantChange |= path.getFileName().toString().endsWith(".java") || Files.isDirectory(path);
+				}
+			}
+
+			if (!key.reset()) { // the watched directory itself was deleted
+				this.watchedDirs.remove(key);
+				relevantChange = true;
+			}
+
+			key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+			if (key == null && !relevantChange) {
+				key = watchService.take();
+			}
+		}
+	}
+
+	private static boolean isCoverageFile(Path path) {
+		String fileName = path.getFileName().toString();
+		return "jacoco.xml".equals(fileName) || fileName.endsWith(".exec");
+	}
+
+	/**
+	 * The build directory and hidden directories (like '.git') are never watched, a new directory in the build output
+	 * isn't a relevant change.
+	 */
+	private static boolean isIgnored(Path path, Path buildDir) {
+		return path.startsWith(buildDir) || path.getFileName().toString().startsWith(".");
+	}
+
+	private void registerRecursively(WatchService watchService, Path dir, Path buildDir) throws IOException {
+		Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path subDir, BasicFileAttributes attributes) throws IOException {
+				if (!subDir.equals(dir) && isIgnored(subDir, buildDir)) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+
+				register(watchService, subDir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private void register(WatchService watchService, Path dir) throws IOException {
+		if (!this.watchedDirs.containsValue(dir) && Files.isDirectory(dir)) {
+			this.watchedDirs.put(dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), dir);
+		}
+	}
+}
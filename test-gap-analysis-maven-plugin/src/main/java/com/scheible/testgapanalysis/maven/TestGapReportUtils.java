@@ -0,0 +1,112 @@
+package com.scheible.testgapanalysis.maven;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.scheible.testgapanalysis.analysis.testgap.CoverageReportMethod;
+import com.scheible.testgapanalysis.analysis.testgap.NewOrChangedFile;
+import com.scheible.testgapanalysis.analysis.testgap.TestGapMethod;
+import com.scheible.testgapanalysis.analysis.testgap.TestGapReport;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Logs and writes test gap reports, the same way in the build itself and in the test gap analysis daemon.
+ *
+ * @author sj
+ */
+abstract class TestGapReportUtils {
+
+	private TestGapReportUtils() {
+	}
+
+	static void log(TestGapReport report, Consumer<String> info) {
+		info.accept(String.format("Performing test gap analysis in '%s'.", report.getWorkDir()));
+
+		if (report.getChangedTypesCoverageCount() == 0) {
+			info.accept("No coverage info available for the new or changed types!");
+		} else {
+			info.accept(String.format("Found coverage info about %d methods of the new or changed types in %s.",
+					report.getChangedTypesCoverageCount(), report.getJaCoCoReportFiles()));
+		}
+
+		String oldCommitHash = report.getPreviousState().substring(0, 7);
+		info.accept(String.format("Comparing the %s", report.getCurrentState()
+				.map(newCommitHash -> "repository head (" + newCommitHash.substring(0, 7)
+				+ ") with reference commit " + oldCommitHash + ".")
+				.orElseGet(() -> "working copy changes with the repository head (" + oldCommitHash + ").")));
+
+		if (report.getNewOrChangedFiles().isEmpty()) {
+			info.accept("No new or changed files!");
+		} else {
+			info.accept(String.format("Found %d new or changed Java files:",
+					report.getNewOrChangedFiles().size()));
+			report.getNewOrChangedFiles().stream().sorted(Comparator.comparing(NewOrChangedFile::getName))
+					.map(Object::toString).forEach(newOrChangedFile -> info.accept(" - " + newOrChangedFile));
+		}
+
+		info.accept("Method blacklist (excluded from coverage check): all getter and setter");
+
+		info.accept(String.format("Test gap: %d%%", (int)(report.getTestGap() * 100)));
+		
+		if (!report.getCoveredMethods().isEmpty()) {
+			info.accept("Covered methods:");
+			report.getCoveredMethods().stream().sorted(getTestGapMethodComparator())
+					.map(Object::toString).forEach(coveredMethod -> info.accept(" - " + coveredMethod));
+		}
+
+		if (!report.getUncoveredMethods().isEmpty()) {
+			info.accept("Uncovered methods:");
+			report.getUncoveredMethods().stream().sorted(getTestGapMethodComparator())
+					.map(Object::toString).forEach(uncoveredMethod -> info.accept(" - " + uncoveredMethod));
+		}
+
+		if (!report.getEmptyMethods().isEmpty()) {
+			info.accept("Empty methods (no coverage information available):");
+			report.getEmptyMethods().stream().sorted(getTestGapMethodComparator())
+					.map(Object::toString).forEach(emptyMethod -> info.accept(" - " + emptyMethod));
+		}
+
+		if (!report.getAmbiguouslyResolvedCoverage().isEmpty()) {
+			info.accept("Ambiguously resolved methods (multiple methods were resolved to a single coverage information):");
+			report.getAmbiguouslyResolvedCoverage().entrySet().stream()
+					.sorted(Comparator.comparing(TestGapReportUtils::getCoverageReportMethodCoveredClassName)
+							.thenComparing(TestGapReportUtils::getCoverageReportMethodMethodLine))
+					.forEach(e -> info.accept(String.format(" - %s -> %s", e.getKey(), e.getValue())));
+		}
+
+		if (!report.getUnresolvableMethods().isEmpty()) {
+			info.accept("Unresolvable methods (coverage information couldn't be found):");
+			report.getUnresolvableMethods().stream().sorted(getTestGapMethodComparator())
+					.map(Object::toString).forEach(unresolvableMethod -> info.accept(" - " + unresolvableMethod));
+		}
+	}
+
+	private static Comparator<TestGapMethod> getTestGapMethodComparator() {
+		return Comparator.comparing(TestGapMethod::getTopLevelTypeFqn)
+				.thenComparing(Comparator.comparing(TestGapMethod::getSourceLine));
+	}
+	
+	private static String getCoverageReportMethodCoveredClassName(Entry<CoverageReportMethod, Set<TestGapMethod>> entry) {
+		return entry.getKey().getCoveredClassName();
+	}
+
+	private static int getCoverageReportMethodMethodLine(Entry<CoverageReportMethod, Set<TestGapMethod>> entry) {
+		return entry.getKey().getCoveredMethodLine();
+	}
+
+	static File writeJson(TestGapReport report, File buildDir) throws IOException {
+		File reportFile = new File(buildDir, "test-gap-report.json");
+		Gson gson = new GsonBuilder().disableHtmlEscaping().setPrettyPrinting()
+				.registerTypeAdapter(Optional.class, new OptionalTypeAdapter()).create();
+
+		Files.write(reportFile.toPath(), gson.toJson(report).getBytes());
+		return reportFile;
+	}
+}
@@ -0,0 +1,32 @@
+package com.scheible.testgapanalysis.maven;
+
+import java.io.IOException;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * Same configuration as the 'perform' goal, but keeps running and performs the analysis again whenever a Java
+ * source or a JaCoCo coverage file changes.
+ *
+ * @author sj
+ */
+@Mojo(name = "watch", requiresProject = false)
+public class WatchMojo extends TestGapAnalysisMojo {
+
+	@Override
+	public void execute() throws MojoExecutionException {
+		if (!this.buildDir.exists()) {
+			throw new MojoExecutionException(String.format("The '%s' directory does not exist, the tests have to "
+					+ "be run before watching for changes.", this.buildDir));
+		}
+
+		try {
+			new TestGapAnalysisWatcher(this::createRequest, getLog()).run();
+		} catch (IOException ex) {
+			throw new MojoExecutionException("Can't watch '" + this.sourceDir + "' for changes!", ex);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
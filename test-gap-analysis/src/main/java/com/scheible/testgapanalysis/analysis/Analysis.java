@@ -1,13 +1,15 @@
 package com.scheible.testgapanalysis.analysis;
 
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import com.scheible.testgapanalysis.common.ParallelUtils;
 import com.scheible.testgapanalysis.git.FileChange;
 import com.scheible.testgapanalysis.git.GitChangeSet;
 import com.scheible.testgapanalysis.jacoco.InstrumentedMethod;
@@ -22,31 +24,84 @@ import com.scheible.testgapanalysis.parser.ParsedMethod;
  */
 public class Analysis {
 
+	/**
+	 * With enabled hunk filter only the methods of changed files that overlap a changed line are parsed
+	 * completely (and compared), a small change in a large file then costs only the masking of a few methods.
+	 */
+	public enum HunkFilter {
+		DISABLED, ENABLED
+	}
+
 	static final Predicate<MethodCompareWrapper> NON_GETTER_OR_SETTER_METHOD = mcw -> !mcw.getParsedMethod().getName()
 			.startsWith("get") && !mcw.getParsedMethod().getName().startsWith("set");
 
-	private final JavaParser javaParser;
+	private final FileChangeParser parser;
+	private final int parallelism;
+
+	public Analysis(JavaParser javaParser, int parallelism, HunkFilter hunkFilter) {
+		this.parser = new FileChangeParser(javaParser, hunkFilter);
+		this.parallelism = parallelism;
+	}
+
+	public Analysis(JavaParser javaParser, int parallelism) {
+		this(javaParser, parallelism, HunkFilter.DISABLED);
+	}
 
 	public Analysis(JavaParser javaParser) {
-		this.javaParser = javaParser;
+		this(javaParser, ParallelUtils.getDefaultParallelism());
 	}
 
 	public AnalysisResult perform(GitChangeSet changeSet, Set<InstrumentedMethod> instrumentedMethods) {
-		// all methods of new or changed files in the new state compared to the old state
-		Set<MethodCompareWrapper> previousStateMethods = changeSet.getChanges().stream()
-				.filter(change -> !change.isDeletion())
-				.flatMap(change -> this.javaParser
-						.getMethods(change.getCurrentContent().get(), change.getRelativePath()).stream())
-				.map(MethodCompareWrapper::new).filter(NON_GETTER_OR_SETTER_METHOD).collect(Collectors.toSet());
+		return perform(findNewOrChangedMethods(changeSet), instrumentedMethods);
+	}
+
+	/**
+	 * Finds all new or changed methods, getters and setters are excluded. Knowing them before reading the
+	 * coverage allows to read only the coverage of their top level types.
+	 */
+	public Set<ParsedMethod> findNewOrChangedMethods(GitChangeSet changeSet) {
+		return findNewOrChangedMethods(changeSet, this::findNewOrChangedMethods);
+	}
 
-		// all methods of changed files in the new state that already existed in the old state
-		Set<MethodCompareWrapper> currentStateMethods = changeSet.getChanges().stream().filter(FileChange::isChange)
-				.flatMap(change -> this.javaParser
-						.getMethods(change.getPreviousContent().get(), change.getRelativePath()).stream())
+	/**
+	 * Creates a pipeline that starts matching file changes while the change set is still being scanned. It has to
+	 * be closed after it was passed to {@link #findNewOrChangedMethods(GitChangeSet, MethodParsingPipeline)}.
+	 */
+	public MethodParsingPipeline createParsingPipeline() {
+		return new MethodParsingPipeline(this::findNewOrChangedMethods, this.parallelism);
+	}
+
+	/**
+	 * Same as {@link #findNewOrChangedMethods(GitChangeSet)} but uses the file changes that were already matched
+	 * by the pipeline.
+	 */
+	public Set<ParsedMethod> findNewOrChangedMethods(GitChangeSet changeSet, MethodParsingPipeline pipeline) {
+		return findNewOrChangedMethods(changeSet, pipeline::getNewOrChangedMethods);
+	}
+
+	/**
+	 * Matches the methods file change by file change on a bounded pool of worker threads and merges the results.
+	 */
+	private Set<ParsedMethod> findNewOrChangedMethods(GitChangeSet changeSet,
+			Function<FileChange, Set<ParsedMethod>> newOrChangedMethods) {
+		List<FileChange> newOrChangedFiles = changeSet.getChanges().stream().filter(change -> !change.isDeletion())
+				.collect(Collectors.toList());
+
+		return ParallelUtils.map(newOrChangedFiles, newOrChangedMethods, this.parallelism).stream().flatMap(Set::stream)
+				.collect(Collectors.toSet());
+	}
+
+	/**
+	 * The methods of a file are only kept until its new or changed methods are known, that way only the files
+	 * that are currently matched are in memory instead of the methods of the whole change set.
+	 */
+	private Set<ParsedMethod> findNewOrChangedMethods(FileChange change) {
+		// all methods of the new or changed file in the new state
+		Set<MethodCompareWrapper> newOrChangedMethods = this.parser.parseCurrent(change).stream()
 				.map(MethodCompareWrapper::new).filter(NON_GETTER_OR_SETTER_METHOD).collect(Collectors.toSet());
 
 		// @formatter:off
-		//  previous state methods
+		//  methods in the old state of the file
 		// |----------------|
 		// |                |
 		//
@@ -60,19 +115,28 @@ public class Analysis {
 		//
 		//      |                |
 		//      |----------------|
-		//       current state methods
+		//       methods in the new state of the file
 		// @formatter:on
 
-		Set<MethodCompareWrapper> unchangedMethods = new HashSet<>(previousStateMethods);
-		unchangedMethods.retainAll(currentStateMethods);
+		if (change.isChange()) {
+			newOrChangedMethods.removeAll(this.parser.parsePrevious(change).stream().map(MethodCompareWrapper::new)
+					.collect(Collectors.toSet()));
+		}
 
-		Set<MethodCompareWrapper> newOrChangedMethods = new HashSet<>(previousStateMethods);
-		newOrChangedMethods.removeAll(unchangedMethods);
+		return MethodCompareWrapper.unwrap(newOrChangedMethods);
+	}
 
+	public AnalysisResult perform(Set<ParsedMethod> newOrChangedMethods, Set<InstrumentedMethod> instrumentedMethods) {
 		CoverageResolver coverageResolver = CoverageResolver.with(instrumentedMethods);
 
-		CoverageResult coverageResult = coverageResolver.resolve(MethodCompareWrapper.unwrap(newOrChangedMethods));
+		return toAnalysisResult(coverageResolver.resolve(newOrChangedMethods, this.parallelism));
+	}
 
+	/**
+	 * Splits the resolved methods of an already resolved coverage result (for example the one of an incremental
+	 * coverage resolver) into the covered and the uncovered ones.
+	 */
+	public static AnalysisResult toAnalysisResult(CoverageResult coverageResult) {
 		Map<ParsedMethod, InstrumentedMethod> uncoveredNewOrChangedMethods = coverageResult.getResolvedMethods()
 				.entrySet().stream().filter(e -> e.getValue().getCoveredInstructionCount() == 0)
 				.collect(Collectors.toMap(Entry::getKey, Entry::getValue));
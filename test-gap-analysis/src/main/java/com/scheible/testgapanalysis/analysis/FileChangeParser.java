@@ -0,0 +1,65 @@
+package com.scheible.testgapanalysis.analysis;
+
+import java.util.Collections;
+import java.util.Set;
+
+import com.scheible.testgapanalysis.analysis.Analysis.HunkFilter;
+import com.scheible.testgapanalysis.git.FileChange;
+import com.scheible.testgapanalysis.git.LineDiff;
+import com.scheible.testgapanalysis.parser.JavaParser;
+import com.scheible.testgapanalysis.parser.ParsedMethod;
+
+/**
+ * Parses the previous and the current content of file changes. Changed files whose contents only differ in
+ * comments, whitespace or imports (according to a token level scan) are not parsed at all, they have no new
+ * or changed methods. With enabled hunk filter only the methods of a changed file that overlap a changed line
+ * (or whose enclosing declarations do) are built, all other methods are unchanged and therefore skipped in
+ * both contents.
+ *
+ * @author sj
+ */
+class FileChangeParser {
+
+	private final JavaParser javaParser;
+	private final HunkFilter hunkFilter;
+
+	FileChangeParser(JavaParser javaParser, HunkFilter hunkFilter) {
+		this.javaParser = javaParser;
+		this.hunkFilter = hunkFilter;
+	}
+
+	Set<ParsedMethod> parseCurrent(FileChange change) {
+		if (haveSameMethods(change)) {
+			return Collections.emptySet();
+		}
+
+		String code = change.getCurrentContent().get();
+		return isFiltered(change)
+				? this.javaParser.getMethods(code, change.getRelativePath(), toLineDiff(change)::overlapsCurrent)
+				: this.javaParser.getMethods(code, change.getRelativePath());
+	}
+
+	Set<ParsedMethod> parsePrevious(FileChange change) {
+		if (haveSameMethods(change)) {
+			return Collections.emptySet();
+		}
+
+		String code = change.getPreviousContent().get();
+		return isFiltered(change)
+				? this.javaParser.getMethods(code, change.getRelativePath(), toLineDiff(change)::overlapsPrevious)
+				: this.javaParser.getMethods(code, change.getRelativePath());
+	}
+
+	private boolean haveSameMethods(FileChange change) {
+		return change.isChange()
+				&& this.javaParser.haveSameMethods(change.getPreviousContent().get(), change.getCurrentContent().get());
+	}
+
+	private boolean isFiltered(FileChange change) {
+		return this.hunkFilter == HunkFilter.ENABLED && change.isChange();
+	}
+
+	private static LineDiff toLineDiff(FileChange change) {
+		return LineDiff.of(change.getPreviousContent().get(), change.getCurrentContent().get());
+	}
+}
@@ -1,6 +1,5 @@
 package com.scheible.testgapanalysis.analysis;
 
-import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -9,6 +8,7 @@ import com.scheible.testgapanalysis.parser.ParsedMethod;
 /**
  * Wrapper for identifying unchanged methods in different states of the codebase. For example source code
  * positions are ignored because line numbers might have shifted, due to changes before or after the method.
+ * The comparison is based on the precomputed fingerprint of the method.
  *
  * @author sj
  */
@@ -34,12 +34,7 @@ public class MethodCompareWrapper {
 			return true;
 		} else if (obj instanceof MethodCompareWrapper) {
 			MethodCompareWrapper otherWrapper = (MethodCompareWrapper) obj;
-			return Objects.equals(this.method.getParameterTypes(), otherWrapper.method.getParameterTypes())
-					&& Objects.equals(this.method.getName(), otherWrapper.method.getName())
-					&& Objects.equals(this.method.getRelevantCode(), otherWrapper.method.getRelevantCode())
-					&& Objects.equals(this.method.getScope(), otherWrapper.method.getScope())
-					&& Objects.equals(this.method.getTopLevelTypeFqn(), otherWrapper.method.getTopLevelTypeFqn())
-					&& Objects.equals(this.method.getMethodType(), otherWrapper.method.getMethodType());
+			return this.method.getFingerprint().equals(otherWrapper.method.getFingerprint());
 		} else {
 			return false;
 		}
@@ -47,8 +42,7 @@ public class MethodCompareWrapper {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.method.getParameterTypes(), this.method.getName(), this.method.getRelevantCode(),
-				this.method.getScope(), this.method.getTopLevelTypeFqn(), this.method.getMethodType());
+		return this.method.getFingerprint().hashCode();
 	}
 
 	@Override
@@ -0,0 +1,58 @@
+package com.scheible.testgapanalysis.analysis;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import com.scheible.testgapanalysis.common.ParallelUtils;
+import com.scheible.testgapanalysis.git.FileChange;
+import com.scheible.testgapanalysis.parser.ParsedMethod;
+
+/**
+ * Matches file changes as soon as they are passed to {@link #accept(FileChange)}, typically while the Git
+ * layer is still loading the remaining blobs. A task parses the previous and the current content of its file
+ * change and only keeps the new or changed methods, all other methods of the file are released right away.
+ * The new or changed methods are later looked up per file change, a file change that was never passed to the
+ * pipeline is matched on demand.
+ *
+ * @author sj
+ */
+public class MethodParsingPipeline implements AutoCloseable {
+
+	private final Function<FileChange, Set<ParsedMethod>> matcher;
+	private final Optional<ExecutorService> executor;
+
+	private final Map<FileChange, Future<Set<ParsedMethod>>> newOrChangedMethods = new ConcurrentHashMap<>();
+
+	MethodParsingPipeline(Function<FileChange, Set<ParsedMethod>> matcher, int parallelism) {
+		this.matcher = matcher;
+		this.executor = parallelism > 1 ? Optional.of(ParallelUtils.newExecutor(parallelism)) : Optional.empty();
+	}
+
+	/**
+	 * Can be called concurrently from any number of threads.
+	 */
+	public void accept(FileChange change) {
+		if (!change.isDeletion()) {
+			this.newOrChangedMethods.put(change,
+					this.executor.isPresent()
+							? this.executor.get().submit(() -> this.matcher.apply(change))
+							: CompletableFuture.completedFuture(this.matcher.apply(change)));
+		}
+	}
+
+	Set<ParsedMethod> getNewOrChangedMethods(FileChange change) {
+		Future<Set<ParsedMethod>> future = this.newOrChangedMethods.remove(change);
+		return future != null ? ParallelUtils.get(future) : this.matcher.apply(change);
+	}
+
+	@Override
+	public void close() {
+		this.executor.ifPresent(ExecutorService::shutdownNow);
+	}
+}
@@ -0,0 +1,84 @@
+package com.scheible.testgapanalysis.analysis.testgap;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.scheible.testgapanalysis.analysis.Analysis;
+import com.scheible.testgapanalysis.analysis.AnalysisResult;
+import com.scheible.testgapanalysis.common.FilesUtils;
+import com.scheible.testgapanalysis.jacoco.CoverageReader;
+import com.scheible.testgapanalysis.jacoco.resolver.IncrementalCoverageResolver;
+import com.scheible.testgapanalysis.parser.ParsedMethod;
+
+/**
+ * Resolves the new or changed methods of repeated runs with an {@link IncrementalCoverageResolver}. Only the
+ * top level types whose new or changed methods differ from the previous run are resolved again. The coverage
+ * is only read for top level types that are new, after the coverage files changed (same paths, sizes and
+ * modification times) the coverage of all types is replaced.
+ *
+ * @author sj
+ */
+class IncrementalResolution {
+
+	private final IncrementalCoverageResolver resolver;
+	private final CoverageReader coverageReader;
+
+	private List<String> coverageFingerprint = Collections.emptyList();
+	private final Set<String> coverageTypeFqns = new HashSet<>();
+	private Map<String, Set<ParsedMethod>> typeMethods = Collections.emptyMap();
+
+	IncrementalResolution(IncrementalCoverageResolver resolver, CoverageReader coverageReader) {
+		this.resolver = resolver;
+		this.coverageReader = coverageReader;
+	}
+
+	synchronized AnalysisResult resolve(Set<ParsedMethod> newOrChangedMethods, Set<File> coverageFiles) {
+		Map<String, Set<ParsedMethod>> currentTypeMethods = newOrChangedMethods.stream()
+				.collect(Collectors.groupingBy(ParsedMethod::getTopLevelTypeFqn, Collectors.toSet()));
+
+		updateCoverage(currentTypeMethods.keySet(), coverageFiles);
+
+		Set<String> changedTypeFqns = new HashSet<>(this.typeMethods.keySet());
+		changedTypeFqns.addAll(currentTypeMethods.keySet());
+		changedTypeFqns.removeIf(topLevelTypeFqn -> Objects.equals(this.typeMethods.get(topLevelTypeFqn),
+				currentTypeMethods.get(topLevelTypeFqn)));
+		if (!changedTypeFqns.isEmpty()) {
+			this.resolver.updateMethods(changedTypeFqns,
+					changedTypeFqns.stream().filter(currentTypeMethods::containsKey)
+							.flatMap(topLevelTypeFqn -> currentTypeMethods.get(topLevelTypeFqn).stream())
+							.collect(Collectors.toSet()));
+		}
+		this.typeMethods = currentTypeMethods;
+
+		return Analysis.toAnalysisResult(this.resolver.getResult());
+	}
+
+	private void updateCoverage(Set<String> topLevelTypeFqns, Set<File> coverageFiles) {
+		List<String> currentCoverageFingerprint = FilesUtils.getFingerprint(coverageFiles);
+
+		Set<String> replacedTypeFqns = new HashSet<>(topLevelTypeFqns);
+		if (currentCoverageFingerprint.equals(this.coverageFingerprint)) {
+			replacedTypeFqns.removeAll(this.coverageTypeFqns);
+		} else {
+			this.coverageFingerprint = currentCoverageFingerprint;
+			replacedTypeFqns.addAll(this.coverageTypeFqns);
+			this.coverageTypeFqns.clear();
+		}
+
+		if (!replacedTypeFqns.isEmpty()) {
+			Set<String> readTypeFqns = replacedTypeFqns.stream().filter(topLevelTypeFqns::contains)
+					.collect(Collectors.toSet());
+			this.resolver.updateCoverage(replacedTypeFqns,
+					readTypeFqns.isEmpty()
+							? Collections.emptySet()
+							: this.coverageReader.getInstrumentedMethods(coverageFiles, readTypeFqns));
+			this.coverageTypeFqns.addAll(readTypeFqns);
+		}
+	}
+}
@@ -7,18 +7,23 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import com.scheible.testgapanalysis.analysis.Analysis;
 import com.scheible.testgapanalysis.analysis.AnalysisResult;
+import com.scheible.testgapanalysis.analysis.MethodParsingPipeline;
 import com.scheible.testgapanalysis.analysis.testgap.NewOrChangedFile.State;
 import com.scheible.testgapanalysis.common.FilesUtils;
+import com.scheible.testgapanalysis.git.FileChange;
 import com.scheible.testgapanalysis.git.GitChangeSet;
 import com.scheible.testgapanalysis.git.GitRepoChangeScanner;
 import com.scheible.testgapanalysis.git.GitRepoChangeScanner.PreviousType;
 import com.scheible.testgapanalysis.git.GitRepoState;
+import com.scheible.testgapanalysis.git.GitSession;
+import com.scheible.testgapanalysis.jacoco.CoverageReader;
 import com.scheible.testgapanalysis.jacoco.InstrumentedMethod;
-import com.scheible.testgapanalysis.jacoco.JaCoCoReportParser;
+import com.scheible.testgapanalysis.jacoco.resolver.IncrementalCoverageResolver;
 import com.scheible.testgapanalysis.parser.ParsedMethod;
 
 /**
@@ -28,42 +33,56 @@ import com.scheible.testgapanalysis.parser.ParsedMethod;
 public class TestGapAnalysis {
 
 	private final Analysis analysis;
-	private final JaCoCoReportParser jaCoCoReportParser;
+	private final CoverageReader coverageReader;
 	private final GitRepoChangeScanner gitRepoChangeScanner;
+	private final Optional<IncrementalResolution> incrementalResolution;
 
-	public TestGapAnalysis(Analysis analysis, JaCoCoReportParser jaCoCoReportParser,
+	public TestGapAnalysis(Analysis analysis, CoverageReader coverageReader,
 			GitRepoChangeScanner gitRepoChangeScanner) {
 		this.analysis = analysis;
-		this.jaCoCoReportParser = jaCoCoReportParser;
+		this.coverageReader = coverageReader;
 		this.gitRepoChangeScanner = gitRepoChangeScanner;
+		this.incrementalResolution = Optional.empty();
+	}
+
+	/**
+	 * For repeated runs of a long-running process: the passed resolver keeps the resolution of all top level
+	 * types, only the types whose new or changed methods or whose coverage changed since the previous run are
+	 * resolved again.
+	 */
+	public TestGapAnalysis(Analysis analysis, CoverageReader coverageReader, GitRepoChangeScanner gitRepoChangeScanner,
+			IncrementalCoverageResolver incrementalCoverageResolver) {
+		this.analysis = analysis;
+		this.coverageReader = coverageReader;
+		this.gitRepoChangeScanner = gitRepoChangeScanner;
+		this.incrementalResolution = Optional
+				.of(new IncrementalResolution(incrementalCoverageResolver, coverageReader));
 	}
 
 	public TestGapReport run(File workDir, File sourceDir, Set<File> jaCoCoReportFiles,
 			Optional<String> referenceCommitHash, Optional<String> previousBranchRegEx,
 			Optional<String> previousTagRegEx) {
-		Set<InstrumentedMethod> instrumentedMethods = this.jaCoCoReportParser.getInstrumentedMethods(jaCoCoReportFiles);
-
-		Path sourceDirAsPath = FilesUtils.toCanonical(sourceDir).toPath();
-
-		if ((previousBranchRegEx.isPresent() ? 1 : 0) + (previousTagRegEx.isPresent() ? 1 : 0)
-				+ (referenceCommitHash.isPresent() ? 1 : 0) > 1) {
-			throw new IllegalArgumentException("Reference commit hash, previous branch RegEx and previous tag RegEx "
-					+ "are mutually exclusive and therefore only a single one can be passed.");
+		try (GitSession gitSession = GitSession.open(FilesUtils.toCanonical(sourceDir).toPath())) {
+			return run(gitSession, workDir, sourceDir, jaCoCoReportFiles, referenceCommitHash, previousBranchRegEx,
+					previousTagRegEx);
 		}
+	}
 
+	/**
+	 * Uses an already opened Git session (that is not closed afterwards), that way a long-running process can
+	 * keep the repository open for repeated analyses.
+	 */
+	public TestGapReport run(GitSession gitSession, File workDir, File sourceDir, Set<File> jaCoCoReportFiles,
+			Optional<String> referenceCommitHash, Optional<String> previousBranchRegEx,
+			Optional<String> previousTagRegEx) {
 		GitChangeSet changeSet;
-		if (previousBranchRegEx.isPresent()) {
-			changeSet = this.gitRepoChangeScanner.compareHeadWithPrevious(sourceDirAsPath, PreviousType.BRANCH,
-					previousBranchRegEx.get());
-		}
-		if (previousTagRegEx.isPresent()) {
-			changeSet = this.gitRepoChangeScanner.compareHeadWithPrevious(sourceDirAsPath, PreviousType.TAG,
-					previousTagRegEx.get());
-		} else if (referenceCommitHash.isPresent()) {
-			changeSet = this.gitRepoChangeScanner.compareHeadWithRepoState(sourceDirAsPath,
-					new GitRepoState(referenceCommitHash.get()));
-		} else {
-			changeSet = this.gitRepoChangeScanner.compareWorkingTreeWithHead(sourceDirAsPath);
+		Set<ParsedMethod> newOrChangedMethods;
+		Path sourceDirAsPath = FilesUtils.toCanonical(sourceDir).toPath();
+		// the changed files are already parsed while the remaining blobs are still loaded
+		try (MethodParsingPipeline parsingPipeline = this.analysis.createParsingPipeline()) {
+			changeSet = scanChanges(gitSession, sourceDirAsPath, referenceCommitHash, previousBranchRegEx,
+					previousTagRegEx, parsingPipeline::accept);
+			newOrChangedMethods = this.analysis.findNewOrChangedMethods(changeSet, parsingPipeline);
 		}
 
 		Set<NewOrChangedFile> newOrChangedFiles = changeSet.getChanges().stream().filter(change -> !change.isDeletion())
@@ -71,7 +90,13 @@ public class TestGapAnalysis {
 						change.isCreation() ? State.NEW : State.CHANGED))
 				.collect(Collectors.toSet());
 
-		CoverageResult coverageResult = performTestGapAnalysis(changeSet, instrumentedMethods);
+		// the coverage is read after the changed files were parsed, that way only the coverage of the top level
+		// types with new or changed methods has to be read
+		Set<InstrumentedMethod> instrumentedMethods = this.coverageReader.getInstrumentedMethods(jaCoCoReportFiles,
+				newOrChangedMethods.stream().map(ParsedMethod::getTopLevelTypeFqn).collect(Collectors.toSet()));
+
+		CoverageResult coverageResult = performTestGapAnalysis(newOrChangedMethods, jaCoCoReportFiles,
+				instrumentedMethods);
 
 		return TestGapReport.builder().setWorkDir(sourceDir.getAbsolutePath())
 				.setPreviousState(changeSet.getPreviousState().getValue())
@@ -79,14 +104,44 @@ public class TestGapAnalysis {
 						? null
 						: changeSet.getCurrentState().getValue()))
 				.setJaCoCoReportFiles(FilesUtils.toRelative(workDir, jaCoCoReportFiles))
-				.setJaCoCoCoverageCount(instrumentedMethods.size()).setNewOrChangedFiles(newOrChangedFiles)
+				.setChangedTypesCoverageCount(instrumentedMethods.size()).setNewOrChangedFiles(newOrChangedFiles)
 				.setCoveredMethods(coverageResult.coveredMethods).setUncoveredMethods(coverageResult.uncoveredMethods)
 				.setEmptyMethods(coverageResult.emptyMethods).setUnresolvableMethods(coverageResult.unresolvableMethods)
 				.setAmbiguouslyResolvedCoverage(coverageResult.ambiguouslyResolvedCoverage).build();
 	}
 
-	private CoverageResult performTestGapAnalysis(GitChangeSet changeSet, Set<InstrumentedMethod> instrumentedMethods) {
-		AnalysisResult result = this.analysis.perform(changeSet, instrumentedMethods);
+	private GitChangeSet scanChanges(GitSession gitSession, Path sourceDirAsPath, Optional<String> referenceCommitHash,
+			Optional<String> previousBranchRegEx, Optional<String> previousTagRegEx,
+			Consumer<FileChange> changeConsumer) {
+		if ((previousBranchRegEx.isPresent() ? 1 : 0) + (previousTagRegEx.isPresent() ? 1 : 0)
+				+ (referenceCommitHash.isPresent() ? 1 : 0) > 1) {
+			throw new IllegalArgumentException("Reference commit hash, previous branch RegEx and previous tag RegEx "
+					+ "are mutually exclusive and therefore only a single one can be passed.");
+		}
+
+		GitChangeSet changeSet;
+		if (previousBranchRegEx.isPresent()) {
+			changeSet = this.gitRepoChangeScanner.compareHeadWithPrevious(gitSession, sourceDirAsPath,
+					PreviousType.BRANCH, previousBranchRegEx.get(), changeConsumer);
+		} else if (previousTagRegEx.isPresent()) {
+			changeSet = this.gitRepoChangeScanner.compareHeadWithPrevious(gitSession, sourceDirAsPath, PreviousType.TAG,
+					previousTagRegEx.get(), changeConsumer);
+		} else if (referenceCommitHash.isPresent()) {
+			changeSet = this.gitRepoChangeScanner.compareHeadWithRepoState(gitSession, sourceDirAsPath,
+					new GitRepoState(referenceCommitHash.get()), changeConsumer);
+		} else {
+			changeSet = this.gitRepoChangeScanner.compareWorkingTreeWithHead(gitSession, sourceDirAsPath,
+					changeConsumer);
+		}
+
+		return changeSet;
+	}
+
+	private CoverageResult performTestGapAnalysis(Set<ParsedMethod> newOrChangedMethods, Set<File> jaCoCoReportFiles,
+			Set<InstrumentedMethod> instrumentedMethods) {
+		AnalysisResult result = this.incrementalResolution.isPresent()
+				? this.incrementalResolution.get().resolve(newOrChangedMethods, jaCoCoReportFiles)
+				: this.analysis.perform(newOrChangedMethods, instrumentedMethods);
 
 		return new CoverageResult(toTestGapMethods(result.getCoveredMethods()),
 				toTestGapMethods(result.getUncoveredMethods()), toTestGapMethods(result.getEmptyMethods()),
@@ -26,7 +26,11 @@ public class TestGapReport {
 	private final Boolean compareWithWorkingCopyChanges;
 
 	private final Set<String> jaCoCoReportFiles;
+	/**
+	 * Kept for existing consumers of the JSON report, always the same as {@link #changedTypesCoverageCount}.
+	 */
 	private final int jaCoCoCoverageCount;
+	private final int changedTypesCoverageCount;
 
 	private final Set<NewOrChangedFile> newOrChangedFiles;
 
@@ -53,7 +57,8 @@ public class TestGapReport {
 		this.compareWithWorkingCopyChanges = builder.currentState.isPresent() ? null : Boolean.TRUE;
 
 		this.jaCoCoReportFiles = Collections.unmodifiableSet(new HashSet<>(builder.jaCoCoReportFiles));
-		this.jaCoCoCoverageCount = builder.jaCoCoCoverageCount;
+		this.jaCoCoCoverageCount = builder.changedTypesCoverageCount;
+		this.changedTypesCoverageCount = builder.changedTypesCoverageCount;
 
 		this.newOrChangedFiles = Collections.unmodifiableSet(new HashSet<>(builder.newOrChangedFiles));
 
@@ -100,10 +105,20 @@ public class TestGapReport {
 		return this.jaCoCoReportFiles;
 	}
 
+	/**
+	 * @deprecated Only the coverage of the top level types of the new or changed methods is read, the count is
+	 *             therefore not the number of methods in all JaCoCo reports anymore but the same as
+	 *             {@link #getChangedTypesCoverageCount()}.
+	 */
+	@Deprecated
 	public int getJaCoCoCoverageCount() {
 		return this.jaCoCoCoverageCount;
 	}
 
+	public int getChangedTypesCoverageCount() {
+		return this.changedTypesCoverageCount;
+	}
+
 	public Set<NewOrChangedFile> getNewOrChangedFiles() {
 		return this.newOrChangedFiles;
 	}
@@ -164,7 +179,7 @@ public class TestGapReport {
 					&& Objects.equals(this.currentState, other.currentState)
 					&& Objects.equals(this.compareWithWorkingCopyChanges, other.compareWithWorkingCopyChanges)
 					&& Objects.equals(this.jaCoCoReportFiles, other.jaCoCoReportFiles)
-					&& this.jaCoCoCoverageCount == other.jaCoCoCoverageCount
+					&& this.changedTypesCoverageCount == other.changedTypesCoverageCount
 					&& Objects.equals(this.newOrChangedFiles, other.newOrChangedFiles)
 					&& this.coveredMethodsCount == other.coveredMethodsCount
 					&& this.uncoveredMethodsCount == other.uncoveredMethodsCount
@@ -185,10 +200,10 @@ public class TestGapReport {
 	@Override
 	public int hashCode() {
 		return Objects.hash(this.workDir, this.previousState, this.currentState, this.compareWithWorkingCopyChanges,
-				this.jaCoCoReportFiles, this.jaCoCoCoverageCount, this.newOrChangedFiles, this.coveredMethodsCount,
-				this.uncoveredMethodsCount, this.testGap, this.emptyMethodsCount, this.unresolvableMethodsCount,
-				this.ambiguouslyResolvedCount, this.coveredMethods, this.uncoveredMethods, this.emptyMethods,
-				this.unresolvableMethods, this.ambiguouslyResolvedCoverage);
+				this.jaCoCoReportFiles, this.changedTypesCoverageCount, this.newOrChangedFiles,
+				this.coveredMethodsCount, this.uncoveredMethodsCount, this.testGap, this.emptyMethodsCount,
+				this.unresolvableMethodsCount, this.ambiguouslyResolvedCount, this.coveredMethods,
+				this.uncoveredMethods, this.emptyMethods, this.unresolvableMethods, this.ambiguouslyResolvedCoverage);
 	}
 
 	@Override
@@ -197,7 +212,7 @@ public class TestGapReport {
 				.append("previousState", this.previousState).append("currentState", this.currentState)
 				.append("compareWithWorkingCopyChanges", this.compareWithWorkingCopyChanges)
 				.append("jaCoCoReportFiles", this.jaCoCoReportFiles)
-				.append("jaCoCoCoverageCount", this.jaCoCoCoverageCount)
+				.append("changedTypesCoverageCount", this.changedTypesCoverageCount)
 				.append("newOrChangedFiles", this.newOrChangedFiles)
 				.append("coveredMethodsCount", this.coveredMethodsCount)
 				.append("uncoveredMethodsCount", this.uncoveredMethodsCount).append("testGap", this.testGap)
@@ -35,6 +35,13 @@ public abstract class TestGapReportBuilder {
 
 	public interface JaCoCoCoverageCountStep {
 
+		NewOrChangedFilesStep setChangedTypesCoverageCount(int changedTypesCoverageCount);
+
+		/**
+		 * @deprecated The coverage is only read for the top level types of the new or changed methods, the count is
+		 *             therefore the same as the one passed to {@link #setChangedTypesCoverageCount(int)}.
+		 */
+		@Deprecated
 		NewOrChangedFilesStep setJaCoCoCoverageCount(int jaCoCoCoverageCount);
 	}
 
@@ -93,7 +100,7 @@ public abstract class TestGapReportBuilder {
 		String previousState;
 		Optional<String> currentState;
 		Set<String> jaCoCoReportFiles;
-		int jaCoCoCoverageCount;
+		int changedTypesCoverageCount;
 		Set<NewOrChangedFile> newOrChangedFiles;
 		Set<TestGapMethod> coveredMethods;
 		Set<TestGapMethod> uncoveredMethods;
@@ -129,11 +136,17 @@ public abstract class TestGapReportBuilder {
 		}
 
 		@Override
-		public NewOrChangedFilesStep setJaCoCoCoverageCount(int jaCoCoCoverageCount) {
-			this.jaCoCoCoverageCount = jaCoCoCoverageCount;
+		public NewOrChangedFilesStep setChangedTypesCoverageCount(int changedTypesCoverageCount) {
+			this.changedTypesCoverageCount = changedTypesCoverageCount;
 			return this;
 		}
 
+		@Override
+		@Deprecated
+		public NewOrChangedFilesStep setJaCoCoCoverageCount(int jaCoCoCoverageCount) {
+			return setChangedTypesCoverageCount(jaCoCoCoverageCount);
+		}
+
 		@Override
 		public CoveredMethodsStep setNewOrChangedFiles(Set<NewOrChangedFile> newOrChangedFiles) {
 			this.newOrChangedFiles = newOrChangedFiles;
@@ -6,6 +6,9 @@ import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -43,6 +46,16 @@ public abstract class FilesUtils {
 		return toCanonical(new File("."));
 	}
 
+	/**
+	 * Identifies the current state of the files by their paths, sizes and modification times. The fingerprint
+	 * doesn't depend on the order of the files.
+	 */
+	public static List<String> getFingerprint(Collection<File> files) {
+		return files.stream().map(File::getAbsoluteFile).sorted(Comparator.comparing(File::getPath))
+				.map(file -> file.getPath() + "|" + file.length() + "|" + file.lastModified())
+				.collect(Collectors.toList());
+	}
+
 	public static Set<String> toRelative(File rootDir, Set<File> files) {
 		Path rootDirAsPath = rootDir.toPath().toAbsolutePath();
 		return files.stream().map(File::toPath).map(Path::toAbsolutePath).map(p -> p
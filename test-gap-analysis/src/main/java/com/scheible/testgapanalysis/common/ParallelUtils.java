@@ -0,0 +1,132 @@
+package com.scheible.testgapanalysis.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs independent tasks on a bounded pool of worker threads. At most {@code parallelism} tasks are executed
+ * at the same time and the results are always returned in the iteration order of the passed items, no matter
+ * in which order the tasks were completed. A {@code parallelism} of one (or less) runs all tasks in the
+ * calling thread.
+ *
+ * @author sj
+ */
+public abstract class ParallelUtils {
+
+	private ParallelUtils() {
+	}
+
+	public static int getDefaultParallelism() {
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	public static <T, R> List<R> map(Collection<T> items, Function<? super T, ? extends R> mapper, int parallelism) {
+		if (parallelism <= 1 || items.size() <= 1) {
+			return items.stream().map(mapper).collect(Collectors.toList());
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, items.size()),
+				new WorkerThreadFactory());
+		try {
+			List<Future<? extends R>> futures = new ArrayList<>(items.size());
+			for (T item : items) {
+				futures.add(executor.submit(() -> mapper.apply(item)));
+			}
+
+			List<R> result = new ArrayList<>(futures.size());
+			for (Future<? extends R> future : futures) {
+				result.add(future.get());
+			}
+			return result;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(ex);
+		} catch (ExecutionException ex) {
+			throw unwrap(ex);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	public static <T> void forEach(Collection<T> items, Consumer<? super T> action, int parallelism) {
+		map(items, item -> {
+			action.accept(item);
+			return null;
+		}, parallelism);
+	}
+
+	/**
+	 * Distributes the items round-robin to at most {@code count} non-empty partitions. That way work that needs
+	 * expensive per worker state (for example an open reader) can be split into one task per worker.
+	 */
+	public static <T> List<List<T>> partition(Collection<T> items, int count) {
+		List<List<T>> partitions = new ArrayList<>();
+		for (int i = 0; i < Math.min(Math.max(count, 1), items.size()); i++) {
+			partitions.add(new ArrayList<>());
+		}
+
+		int index = 0;
+		for (T item : items) {
+			partitions.get(index++ % partitions.size()).add(item);
+		}
+		return partitions;
+	}
+
+	/**
+	 * Creates a pool of {@code parallelism} daemon worker threads for long-lived pipelines, the caller is
+	 * responsible for shutting it down.
+	 */
+	public static ExecutorService newExecutor(int parallelism) {
+		return Executors.newFixedThreadPool(Math.max(parallelism, 1), new WorkerThreadFactory());
+	}
+
+	/**
+	 * Waits for the result of the future, exceptions thrown by the task are rethrown unwrapped.
+	 */
+	public static <R> R get(Future<R> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(ex);
+		} catch (ExecutionException ex) {
+			throw unwrap(ex);
+		}
+	}
+
+	private static RuntimeException unwrap(ExecutionException ex) {
+		if (ex.getCause() instanceof RuntimeException) {
+			return (RuntimeException) ex.getCause();
+		} else if (ex.getCause() instanceof Error) {
+			throw (Error) ex.getCause();
+		} else {
+			return new IllegalStateException(ex.getCause());
+		}
+	}
+
+	private static class WorkerThreadFactory implements ThreadFactory {
+
+		private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+		private final int poolNumber = POOL_COUNTER.incrementAndGet();
+		private final AtomicInteger threadCounter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable,
+					"test-gap-analysis-" + this.poolNumber + "-worker-" + this.threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -12,6 +12,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.scheible.testgapanalysis.common.FilesUtils;
+import com.scheible.testgapanalysis.common.ParallelUtils;
 import com.scheible.testgapanalysis.jacoco.InstrumentedMethod;
 import com.scheible.testgapanalysis.jacoco.JaCoCoReportParser;
 import com.scheible.testgapanalysis.jacoco.resolver.CoverageResolver;
@@ -27,10 +28,16 @@ public class DebugCoverageResolution {
 
 	private final JavaParser javaParser;
 	private final JaCoCoReportParser jaCoCoReportParser;
+	private final int parallelism;
 
-	public DebugCoverageResolution(JavaParser javaParser, JaCoCoReportParser jaCoCoReportParser) {
+	public DebugCoverageResolution(JavaParser javaParser, JaCoCoReportParser jaCoCoReportParser, int parallelism) {
 		this.javaParser = javaParser;
 		this.jaCoCoReportParser = jaCoCoReportParser;
+		this.parallelism = parallelism;
+	}
+
+	public DebugCoverageResolution(JavaParser javaParser, JaCoCoReportParser jaCoCoReportParser) {
+		this(javaParser, jaCoCoReportParser, ParallelUtils.getDefaultParallelism());
 	}
 
 	public DebugCoverageResolutionReport run(File workDir, File sourceDir, Set<File> jaCoCoReportFiles) {
@@ -38,7 +45,7 @@ public class DebugCoverageResolution {
 		ParseResult parseResult = parseMethods(sourceDir);
 
 		CoverageResolver resolver = CoverageResolver.with(instrumentedMethods);
-		CoverageResult result = resolver.resolve(parseResult.methods);
+		CoverageResult result = resolver.resolve(parseResult.methods, this.parallelism);
 
 		return DebugCoverageResolutionReport.builder().setCoverageInfoCount(instrumentedMethods.size())
 				.setJaCoCoReportFiles(FilesUtils.toRelative(workDir, jaCoCoReportFiles))
@@ -54,9 +61,9 @@ public class DebugCoverageResolution {
 			Set<File> javaFiles = walkStream.filter(javaFileMatcher::matches).map(Path::toFile)
 					.collect(Collectors.toSet());
 
-			Set<ParsedMethod> methods = javaFiles.stream()
-					.flatMap(f -> this.javaParser.getMethods(FilesUtils.readUtf8(f), f.getAbsolutePath()).stream())
-					.collect(Collectors.toSet());
+			Set<ParsedMethod> methods = ParallelUtils.map(javaFiles,
+					f -> this.javaParser.getMethods(FilesUtils.readUtf8(f), f.getAbsolutePath()), this.parallelism)
+					.stream().flatMap(Set::stream).collect(Collectors.toSet());
 
 			return new ParseResult(methods, javaFiles.size());
 		} catch (IOException ex) {
@@ -1,20 +1,23 @@
 package com.scheible.testgapanalysis.git;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
-import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
 import org.eclipse.jgit.treewalk.filter.PathFilter;
 import org.eclipse.jgit.treewalk.filter.PathSuffixFilter;
 import org.eclipse.jgit.treewalk.filter.TreeFilter;
 
+import com.scheible.testgapanalysis.common.ParallelUtils;
+
 /**
  *
  * @author sj
@@ -25,37 +28,95 @@ public class GitRepoChangeScanner {
 		BRANCH, TAG
 	}
 
+	/**
+	 * With enabled rename detection a moved (and possibly slightly modified) file is reported as a single change
+	 * instead of a deletion and a creation.
+	 */
+	public enum RenameDetection {
+		DISABLED, ENABLED
+	}
+
+	private static final Consumer<FileChange> IGNORE_CHANGE = change -> {
+	};
+
 	private final PreviousStateFinder previousStateFinder;
 	private final TreeDiffer treeDiffer;
 	private final boolean javaFilesOnly;
 
-	GitRepoChangeScanner(boolean javaFilesOnly) {
-		this.previousStateFinder = new PreviousStateFinder();
-		this.treeDiffer = new TreeDiffer();
+	GitRepoChangeScanner(boolean javaFilesOnly, RenameDetection renameDetection, int parallelism,
+			Optional<File> refTimeCacheFile) {
+		this.previousStateFinder = new PreviousStateFinder(refTimeCacheFile.map(File::toPath));
+		this.treeDiffer = new TreeDiffer(renameDetection == RenameDetection.ENABLED, parallelism);
 		this.javaFilesOnly = javaFilesOnly;
 	}
 
+	GitRepoChangeScanner(boolean javaFilesOnly) {
+		this(javaFilesOnly, RenameDetection.DISABLED, ParallelUtils.getDefaultParallelism(), Optional.empty());
+	}
+
+	/**
+	 * The blobs of the changed files are loaded by at most {@code parallelism} threads. The commit times of the
+	 * previous tags or branches are persisted in the ref time cache file (if present) and reused by later runs.
+	 */
+	public GitRepoChangeScanner(RenameDetection renameDetection, int parallelism, Optional<File> refTimeCacheFile) {
+		this(true, renameDetection, parallelism, refTimeCacheFile);
+	}
+
+	public GitRepoChangeScanner(RenameDetection renameDetection, int parallelism) {
+		this(renameDetection, parallelism, Optional.empty());
+	}
+
+	public GitRepoChangeScanner(RenameDetection renameDetection) {
+		this(renameDetection, ParallelUtils.getDefaultParallelism());
+	}
+
 	public GitRepoChangeScanner() {
-		this(true);
+		this(RenameDetection.DISABLED);
 	}
 
 	public GitChangeSet compareWorkingTreeWithHead(Path gitRepositorySubDir) {
-		return compare(gitRepositorySubDir, findRepository(gitRepositorySubDir), Optional.empty());
+		try (GitSession session = GitSession.open(gitRepositorySubDir)) {
+			return compareWorkingTreeWithHead(session, gitRepositorySubDir, IGNORE_CHANGE);
+		}
+	}
+
+	/**
+	 * Every file change is passed to the consumer as soon as its content was loaded, possibly concurrently from
+	 * several threads. The same applies to the other {@code compare*} methods with a consumer. The session is not
+	 * closed, that way it can be used for further Git operations of the same analysis run.
+	 */
+	public GitChangeSet compareWorkingTreeWithHead(GitSession session, Path gitRepositorySubDir,
+			Consumer<FileChange> changeConsumer) {
+		return compare(session, gitRepositorySubDir, Optional.empty(), changeConsumer);
 	}
 
 	public GitChangeSet compareHeadWithRepoState(Path gitRepositorySubDir, GitRepoState previousState) {
-		return compare(gitRepositorySubDir, findRepository(gitRepositorySubDir), Optional.of(previousState));
+		try (GitSession session = GitSession.open(gitRepositorySubDir)) {
+			return compareHeadWithRepoState(session, gitRepositorySubDir, previousState, IGNORE_CHANGE);
+		}
+	}
+
+	public GitChangeSet compareHeadWithRepoState(GitSession session, Path gitRepositorySubDir,
+			GitRepoState previousState, Consumer<FileChange> changeConsumer) {
+		return compare(session, gitRepositorySubDir, Optional.of(previousState), changeConsumer);
 	}
 
 	public GitChangeSet compareHeadWithPrevious(Path gitRepositorySubDir, PreviousType type, String regEx) {
-		try (Repository repository = findRepository(gitRepositorySubDir)) {
-			GitRepoState previousState = this.previousStateFinder.getPreviousState(repository, type, regEx);
-			return compare(gitRepositorySubDir, repository, Optional.of(previousState));
+		try (GitSession session = GitSession.open(gitRepositorySubDir)) {
+			return compareHeadWithPrevious(session, gitRepositorySubDir, type, regEx, IGNORE_CHANGE);
 		}
 	}
 
-	private GitChangeSet compare(Path gitRepositorySubDir, Repository repository, Optional<GitRepoState> repoState) {
+	public GitChangeSet compareHeadWithPrevious(GitSession session, Path gitRepositorySubDir, PreviousType type,
+			String regEx, Consumer<FileChange> changeConsumer) {
+		GitRepoState previousState = this.previousStateFinder.getPreviousState(session, type, regEx);
+		return compare(session, gitRepositorySubDir, Optional.of(previousState), changeConsumer);
+	}
+
+	private GitChangeSet compare(GitSession session, Path gitRepositorySubDir, Optional<GitRepoState> repoState,
+			Consumer<FileChange> changeConsumer) {
 		try {
+			Repository repository = session.getRepository();
 			String previousReferenceExpression = repoState.map(GitRepoState::getValue).orElse(Constants.HEAD);
 			ObjectId previousObjectId = repository.resolve(previousReferenceExpression);
 			if (previousObjectId == null) {
@@ -63,8 +124,9 @@ public class GitRepoChangeScanner {
 			}
 			ObjectId currentObjectId = repoState.isPresent() ? repository.resolve(Constants.HEAD) : null;
 
-			Set<FileChange> changes = this.treeDiffer.scan(repository, previousObjectId, currentObjectId,
-					buildFilter(repository.getWorkTree().toPath(), gitRepositorySubDir, this.javaFilesOnly));
+			Set<FileChange> changes = this.treeDiffer.scan(session, previousObjectId, currentObjectId,
+					buildFilter(repository.getWorkTree().toPath(), gitRepositorySubDir, this.javaFilesOnly),
+					changeConsumer);
 
 			return new GitChangeSet(new GitRepoState(previousObjectId.name()),
 					currentObjectId != null ? new GitRepoState(currentObjectId.name()) : GitRepoState.WORKING_TREE,
@@ -85,12 +147,4 @@ public class GitRepoChangeScanner {
 
 		return isSubDir ? PathFilter.create(relativePath.toString().replace('\\', '/')) : TreeFilter.ALL;
 	}
-
-	private static Repository findRepository(Path gitRepositorySubDir) {
-		try {
-			return new FileRepositoryBuilder().findGitDir(gitRepositorySubDir.toFile()).setMustExist(true).build();
-		} catch (IOException ex) {
-			throw new UncheckedIOException(ex);
-		}
-	}
 }
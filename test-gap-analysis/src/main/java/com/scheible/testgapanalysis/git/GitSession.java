@@ -0,0 +1,81 @@
+package com.scheible.testgapanalysis.git;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+
+/**
+ * Owns the repository, an object reader and a rev walk for a whole analysis run. That way all Git steps share
+ * the already opened pack files and parsed commits instead of opening their own ones. Closing the session
+ * releases all of them. A session that is kept open for several runs has to release the parsed objects after
+ * every run, the rev walk would otherwise keep every commit and tree it ever parsed.
+ *
+ * @author sj
+ */
+public class GitSession implements AutoCloseable {
+
+	private final Repository repository;
+	private final ObjectReader reader;
+	private RevWalk revWalk;
+
+	private GitSession(Repository repository) {
+		this.repository = repository;
+		this.reader = repository.newObjectReader();
+		this.revWalk = new RevWalk(this.reader);
+	}
+
+	/**
+	 * Opens the repository the directory belongs to.
+	 */
+	public static GitSession open(Path gitRepositorySubDir) {
+		try {
+			return new GitSession(
+					new FileRepositoryBuilder().findGitDir(gitRepositorySubDir.toFile()).setMustExist(true).build());
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Uses an already opened repository, closing the session doesn't close the repository for its other users.
+	 */
+	static GitSession of(Repository repository) {
+		repository.incrementOpen();
+		return new GitSession(repository);
+	}
+
+	Repository getRepository() {
+		return this.repository;
+	}
+
+	/**
+	 * The reader is not thread-safe, concurrent workers have to create their own ones.
+	 */
+	ObjectReader getReader() {
+		return this.reader;
+	}
+
+	RevWalk getRevWalk() {
+		return this.revWalk;
+	}
+
+	/**
+	 * Replaces the rev walk with a new one, all commits and trees parsed so far can then be garbage collected.
+	 * The old rev walk is not closed because that would close the shared reader as well.
+	 */
+	public void releaseParsedObjects() {
+		this.revWalk = new RevWalk(this.reader);
+	}
+
+	@Override
+	public void close() {
+		this.revWalk.close();
+		this.reader.close();
+		this.repository.close();
+	}
+}
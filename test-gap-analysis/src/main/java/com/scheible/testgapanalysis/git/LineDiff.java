@@ -0,0 +1,60 @@
+package com.scheible.testgapanalysis.git;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.ToIntFunction;
+
+import org.eclipse.jgit.diff.DiffAlgorithm;
+import org.eclipse.jgit.diff.DiffAlgorithm.SupportedAlgorithm;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.EditList;
+import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.diff.RawTextComparator;
+
+/**
+ * Line based diff (histogram diff, the same as Git uses) of the previous and the current content of a file.
+ * Answers if a (1-based and inclusive) line range of either content overlaps a changed line or a line next to
+ * it.
+ *
+ * @author sj
+ */
+public class LineDiff {
+
+	private final EditList edits;
+
+	private LineDiff(EditList edits) {
+		this.edits = edits;
+	}
+
+	public static LineDiff of(String previousContent, String currentContent) {
+		return new LineDiff(DiffAlgorithm.getAlgorithm(SupportedAlgorithm.HISTOGRAM).diff(RawTextComparator.DEFAULT,
+				new RawText(previousContent.getBytes(StandardCharsets.UTF_8)),
+				new RawText(currentContent.getBytes(StandardCharsets.UTF_8))));
+	}
+
+	public boolean overlapsPrevious(int firstLine, int lastLine) {
+		return overlaps(firstLine, lastLine, Edit::getBeginA, Edit::getEndA);
+	}
+
+	public boolean overlapsCurrent(int firstLine, int lastLine) {
+		return overlaps(firstLine, lastLine, Edit::getBeginB, Edit::getEndB);
+	}
+
+	private boolean overlaps(int firstLine, int lastLine, ToIntFunction<Edit> begin, ToIntFunction<Edit> end) {
+		for (Edit edit : this.edits) {
+			// the edits are 0-based and exclusive, the lines before and after an edit are touched as well, that way
+			// an unchanged range next to an edit is touched in both contents (also if the edit is empty in one)
+			int firstTouchedLine = begin.applyAsInt(edit);
+			int lastTouchedLine = end.applyAsInt(edit) + 1;
+
+			if (firstTouchedLine <= lastLine && lastTouchedLine >= firstLine) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	public boolean isEmpty() {
+		return this.edits.isEmpty();
+	}
+}
@@ -2,28 +2,25 @@ package com.scheible.testgapanalysis.git;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.ListBranchCommand;
-import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
-import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.revwalk.RevWalk;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.scheible.testgapanalysis.git.GitRepoChangeScanner.PreviousType;
+import com.scheible.testgapanalysis.git.RefTimeCache.RefTime;
 
 /**
  *
@@ -33,30 +30,40 @@ class PreviousStateFinder {
 
 	protected final Logger logger = LoggerFactory.getLogger(getClass());
 
-	GitRepoState getPreviousState(Repository repository, PreviousType type, String regEx) {
+	private final Optional<Path> refTimeCacheFile;
+
+	/**
+	 * The commit times of the refs are persisted in the cache file (if present) and reused by later runs.
+	 */
+	PreviousStateFinder(Optional<Path> refTimeCacheFile) {
+		this.refTimeCacheFile = refTimeCacheFile;
+	}
+
+	PreviousStateFinder() {
+		this(Optional.empty());
+	}
+
+	GitRepoState getPreviousState(GitSession session, PreviousType type, String regEx) {
 		try {
-			Set<TimestampedState> timestampedStates = getTimestampedStates(repository, type);
+			Pattern pattern = Pattern.compile(regEx);
+			Set<TimestampedState> timestampedStates = getTimestampedStates(session, type, pattern);
 
 			if (this.logger.isDebugEnabled()) {
-				this.logger.debug("Found the following timestamped states [{}] with [{}] matching to the RegEx.",
+				this.logger.debug("Found the following timestamped states [{}] matching to the RegEx.",
 						timestampedStates.stream().sorted(Comparator.comparing(TimestampedState::getTimestamp))
 								.map(state -> state.getName() + " (" + state.getTimestamp() + ")")
-								.collect(Collectors.joining(", ")),
-						timestampedStates.stream().filter(timestampedState -> matches(timestampedState.name, regEx))
-								.map(TimestampedState::getName).collect(Collectors.joining(", ")));
+								.collect(Collectors.joining(", ")));
 			}
 
-			return new GitRepoState(findPrevious(timestampedStates, regEx).objectId.name());
+			return new GitRepoState(findPrevious(timestampedStates, pattern).objectId.name());
 		} catch (IOException ex) {
 			throw new UncheckedIOException(ex);
-		} catch (GitAPIException ex) {
-			throw new IllegalStateException(ex);
 		}
 	}
 
-	static TimestampedState findPrevious(Set<TimestampedState> timestampedStates, String regEx) {
+	static TimestampedState findPrevious(Set<TimestampedState> timestampedStates, Pattern pattern) {
 		List<TimestampedState> sorted = timestampedStates.stream()
-				.filter(timestampedState -> matches(timestampedState.name, regEx))
+				.filter(timestampedState -> matches(timestampedState.name, pattern))
 				.sorted(Comparator.comparing(TimestampedState::getTimestamp)).collect(Collectors.toList());
 
 		Optional<TimestampedState> headState = sorted.stream().filter(TimestampedState::isHead).findFirst();
@@ -67,37 +74,35 @@ class PreviousStateFinder {
 		}
 	}
 
-	static boolean matches(String name, String regEx) {
-		return (name.contains("/") ? name.substring(name.lastIndexOf('/') + 1) : name).matches(regEx);
+	static boolean matches(String name, Pattern pattern) {
+		return pattern.matcher(name.contains("/") ? name.substring(name.lastIndexOf('/') + 1) : name).matches();
 	}
 
-	private static Set<TimestampedState> getTimestampedStates(Repository repository,
-			GitRepoChangeScanner.PreviousType type) throws IOException, GitAPIException {
+	/**
+	 * The names of the refs are matched before their commits are resolved, that way only the commits of the
+	 * matching refs (that are not already cached) have to be parsed.
+	 */
+	private Set<TimestampedState> getTimestampedStates(GitSession session, PreviousType type, Pattern pattern)
+			throws IOException {
 		Set<TimestampedState> result = new HashSet<>();
 
-		RevWalk walk = new RevWalk(repository);
-
-		RevCommit headCommit = walk.parseCommit(repository.resolve(Constants.HEAD));
-
-		try (Git git = new Git(repository)) {
-			List<Ref> refs = type == GitRepoChangeScanner.PreviousType.BRANCH
-					? git.branchList().setListMode(ListBranchCommand.ListMode.REMOTE).call()
-					: git.tagList().call();
-			for (Ref ref : refs) {
-				// Peeled objectId is only relevant for annotated tags (for them objectId whould be the tag itself).
-				ObjectId id = ref.getPeeledObjectId() != null ? ref.getPeeledObjectId() : ref.getObjectId();
+		Repository repository = session.getRepository();
+		ObjectId headCommitId = repository.resolve(Constants.HEAD);
+		RefTimeCache refTimeCache = new RefTimeCache(this.refTimeCacheFile);
 
-				if (id != null) {
-					RevCommit commit = walk.parseCommit(id);
-					OffsetDateTime timestamp = commit.getCommitterIdent().getWhen().toInstant().atOffset(
-							ZoneOffset.ofTotalSeconds(commit.getCommitterIdent().getTimeZone().getRawOffset() / 1000));
+		for (Ref ref : repository.getRefDatabase()
+				.getRefsByPrefix(type == PreviousType.BRANCH ? Constants.R_REMOTES : Constants.R_TAGS)) {
+			// Peeled objectId is only relevant for annotated tags (for them objectId whould be the tag itself).
+			ObjectId id = ref.getPeeledObjectId() != null ? ref.getPeeledObjectId() : ref.getObjectId();
 
-					result.add(new TimestampedState(ref.getName(), timestamp, ref.getObjectId(),
-							commit.equals(headCommit)));
-				}
+			if (id != null && matches(ref.getName(), pattern)) {
+				RefTime refTime = refTimeCache.get(session.getRevWalk(), id);
+				result.add(new TimestampedState(ref.getName(), refTime.getTimestamp(), ref.getObjectId(),
+						refTime.getCommitId().equals(headCommitId)));
 			}
 		}
 
+		refTimeCache.save();
 		return result;
 	}
 
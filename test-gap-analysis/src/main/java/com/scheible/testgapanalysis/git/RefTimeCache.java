@@ -0,0 +1,142 @@
+package com.scheible.testgapanalysis.git;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the commit and the commit time a ref object id resolves to. Object ids are content hashes, an entry
+ * is therefore never outdated. If a file is passed the cache is read from and written back to it, every line
+ * of it contains the ref object id, the commit id, the epoch second and the zone offset of the commit time.
+ *
+ * @author sj
+ */
+class RefTimeCache {
+
+	private static final String FORMAT_VERSION = "1";
+
+	protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final Optional<Path> file;
+	private final Map<ObjectId, RefTime> refTimes = new HashMap<>();
+	private boolean modified;
+
+	RefTimeCache(Optional<Path> file) {
+		this.file = file;
+		file.filter(Files::exists).ifPresent(this::read);
+	}
+
+	RefTime get(RevWalk revWalk, ObjectId refObjectId) throws IOException {
+		RefTime refTime = this.refTimes.get(refObjectId);
+		if (refTime == null) {
+			RevCommit commit = revWalk.parseCommit(refObjectId);
+			PersonIdent committer = commit.getCommitterIdent();
+			refTime = new RefTime(commit.copy(), committer.getWhen().toInstant()
+					.atOffset(ZoneOffset.ofTotalSeconds(committer.getTimeZone().getRawOffset() / 1000)));
+
+			this.refTimes.put(refObjectId.copy(), refTime);
+			this.modified = true;
+		}
+		return refTime;
+	}
+
+	/**
+	 * Writes the cache only if new refs were resolved. The cache is written to a temporary file first and then
+	 * moved, that way a concurrent run never reads a partially written cache.
+	 */
+	void save() {
+		if (!this.modified || !this.file.isPresent()) {
+			return;
+		}
+
+		Path cacheFile = this.file.get();
+		Path tempFile = null;
+		try {
+			Path parentDir = cacheFile.toAbsolutePath().getParent();
+			Files.createDirectories(parentDir);
+			tempFile = Files.createTempFile(parentDir, cacheFile.getFileName().toString(), ".tmp");
+			try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+				writer.write(FORMAT_VERSION);
+				writer.newLine();
+				for (Entry<ObjectId, RefTime> refTime : this.refTimes.entrySet()) {
+					writer.write(refTime.getKey().name() + " " + refTime.getValue().commitId.name() + " "
+							+ refTime.getValue().timestamp.toEpochSecond() + " "
+							+ refTime.getValue().timestamp.getOffset().getTotalSeconds());
+					writer.newLine();
+				}
+			}
+			Files.move(tempFile, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			this.modified = false;
+		} catch (IOException ex) {
+			this.logger.warn("Can't write ref time cache '{}'.", cacheFile, ex);
+			deleteIfExists(tempFile);
+		}
+	}
+
+	private void deleteIfExists(Path file) {
+		if (file != null) {
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException ex) {
+				this.logger.debug("Can't delete temporary ref time cache '{}'.", file, ex);
+			}
+		}
+	}
+
+	private void read(Path cacheFile) {
+		try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+			if (!FORMAT_VERSION.equals(reader.readLine())) {
+				return;
+			}
+
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] values = line.split(" ");
+				this.refTimes.put(ObjectId.fromString(values[0]),
+						new RefTime(ObjectId.fromString(values[1]),
+								OffsetDateTime.ofInstant(Instant.ofEpochSecond(Long.parseLong(values[2])),
+										ZoneOffset.ofTotalSeconds(Integer.parseInt(values[3])))));
+			}
+		} catch (IOException | RuntimeException ex) {
+			this.logger.debug("Can't read ref time cache '{}'.", cacheFile, ex);
+			this.refTimes.clear(); // truncated or otherwise corrupt cache
+		}
+	}
+
+	static class RefTime {
+
+		private final ObjectId commitId;
+		private final OffsetDateTime timestamp;
+
+		private RefTime(ObjectId commitId, OffsetDateTime timestamp) {
+			this.commitId = commitId;
+			this.timestamp = timestamp;
+		}
+
+		ObjectId getCommitId() {
+			return this.commitId;
+		}
+
+		OffsetDateTime getTimestamp() {
+			return this.timestamp;
+		}
+	}
+}
@@ -1,87 +1,208 @@
 package com.scheible.testgapanalysis.git;
 
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.eclipse.jgit.diff.ContentSource;
 import org.eclipse.jgit.diff.DiffEntry;
-import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.DiffEntry.Side;
 import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.errors.BinaryBlobException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Repository;
-import org.eclipse.jgit.patch.FileHeader;
-import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.pack.PackConfig;
+import org.eclipse.jgit.submodule.SubmoduleWalk.IgnoreSubmoduleMode;
 import org.eclipse.jgit.treewalk.AbstractTreeIterator;
 import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.WorkingTreeIterator;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.NotIgnoredFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilterGroup;
 import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.eclipse.jgit.util.RawParseUtils;
+
+import com.scheible.testgapanalysis.common.ParallelUtils;
 
 /**
- * Class to find all changes between to repo Git trees.
- * 
+ * Class to find all changes between to repo Git trees. The trees are compared with a plain {@code TreeWalk},
+ * only the blobs of the changed paths are loaded afterwards. No diff (edit list or hunks) is ever computed.
+ * Binary files and submodules are skipped. The working tree is only compared for the paths the index reports
+ * as potentially changed.
+ *
  * @author sj
  */
 class TreeDiffer {
 
+	private final boolean detectRenames;
+	private final int parallelism;
+
+	TreeDiffer(boolean detectRenames, int parallelism) {
+		this.detectRenames = detectRenames;
+		this.parallelism = parallelism;
+	}
+
+	TreeDiffer(boolean detectRenames) {
+		this(detectRenames, 1);
+	}
+
+	TreeDiffer() {
+		this(false);
+	}
+
 	Set<FileChange> scan(Repository repository, ObjectId previous, ObjectId current, TreeFilter treeFilter)
 			throws IOException {
-		AbstractTreeIterator previousTree = createTreeIterator(repository, previous);
+		try (GitSession session = GitSession.of(repository)) {
+			return scan(session, previous, current, treeFilter, change -> {
+			});
+		}
+	}
+
+	/**
+	 * The trees are compared with the reader of the session. The blobs of the changed files are then loaded
+	 * concurrently, every worker uses its own object reader. Every file change is passed to the consumer (in the
+	 * worker thread) as soon as it was loaded, that way it can already be processed while the remaining blobs are
+	 * still loaded.
+	 */
+	Set<FileChange> scan(GitSession session, ObjectId previous, ObjectId current, TreeFilter treeFilter,
+			Consumer<FileChange> changeConsumer) throws IOException {
+		Repository repository = session.getRepository();
+		Optional<TreeFilter> scanFilter = current != null
+				? Optional.of(treeFilter)
+				: findWorkingTreeCandidates(repository, previous, treeFilter);
+		if (!scanFilter.isPresent()) {
+			return Collections.emptySet();
+		}
 
+		AbstractTreeIterator previousTree = createTreeIterator(session, previous);
 		AbstractTreeIterator currentTree = current != null
-				? createTreeIterator(repository, current)
+				? createTreeIterator(session, current)
 				: new FileTreeIterator(repository);
 
-		Set<FileChange> result = new HashSet<>();
+		List<DiffEntry> diffEntries = scan(repository, session.getReader(), previousTree, currentTree, scanFilter.get())
+				.stream()
+				.filter(entry -> entry.getOldMode() != FileMode.GITLINK && entry.getNewMode() != FileMode.GITLINK)
+				.collect(Collectors.toList());
 
-		// There was no other way to access the RawText. Getting them this way might be pretty hacky but allows
-		// to reuse all the file reading code of DiffFormatter...
-		DiffFormatter formatter = new DiffFormatter(new NoopOutputStream()) {
-			@Override
-			public void format(FileHeader head, RawText a, RawText b) throws IOException {
-				if (a == null || b == null) {
-					return;
-				}
-
-				String path = "/dev/null".equals(head.getOldPath())
-						? head.getNewPath()
-						: "/dev/null".equals(head.getNewPath()) ? head.getOldPath() : head.getNewPath();
-				result.add(new FileChange(path,
-						RawText.EMPTY_TEXT.equals(a) ? Optional.empty() : Optional.of(a.getString(0, a.size(), false)),
-						RawText.EMPTY_TEXT.equals(b)
-								? Optional.empty()
-								: Optional.of(b.getString(0, b.size(), false))));
-			}
-		};
+		return Collections.unmodifiableSet(ParallelUtils
+				.map(ParallelUtils.partition(diffEntries, this.parallelism),
+						entries -> load(repository, current == null, entries, changeConsumer), this.parallelism)
+				.stream().flatMap(List::stream).collect(Collectors.toSet()));
+	}
 
-		formatter.setRepository(repository);
-		formatter.setPathFilter(treeFilter);
+	/**
+	 * Comparing a tree with a plain working tree iterator requires to hash every file. The index is therefore
+	 * used first (with racy-Git safe file stat checks) to find the candidate paths that are potentially changed.
+	 * Returns an empty optional if there is no candidate at all.
+	 */
+	private static Optional<TreeFilter> findWorkingTreeCandidates(Repository repository, ObjectId previous,
+			TreeFilter treeFilter) throws IOException {
+		IndexDiff indexDiff = new IndexDiff(repository, previous, new FileTreeIterator(repository));
+		indexDiff.setFilter(treeFilter);
+		indexDiff.setIgnoreSubmoduleMode(IgnoreSubmoduleMode.ALL);
+		indexDiff.diff();
+
+		Set<String> candidatePaths = Stream
+				.of(indexDiff.getAdded(), indexDiff.getChanged(), indexDiff.getRemoved(), indexDiff.getMissing(),
+						indexDiff.getModified(), indexDiff.getUntracked(), indexDiff.getConflicting())
+				.flatMap(Set::stream).collect(Collectors.toSet());
+		return candidatePaths.isEmpty()
+				? Optional.empty()
+				: Optional.of(AndTreeFilter.create(PathFilterGroup.createFromStrings(candidatePaths), treeFilter));
+	}
 
-		for (DiffEntry diffEntry : formatter.scan(previousTree, currentTree)) {
-			formatter.format(diffEntry);
+	private List<DiffEntry> scan(Repository repository, ObjectReader reader, AbstractTreeIterator previousTree,
+			AbstractTreeIterator currentTree, TreeFilter treeFilter) throws IOException {
+		try (TreeWalk treeWalk = new TreeWalk(repository, reader)) {
+			treeWalk.addTree(previousTree);
+			treeWalk.addTree(currentTree);
+			treeWalk.setRecursive(true);
+			treeWalk.setFilter(AndTreeFilter.create(treeFilter,
+					currentTree instanceof WorkingTreeIterator
+							? AndTreeFilter.create(new NotIgnoredFilter(1), TreeFilter.ANY_DIFF)
+							: TreeFilter.ANY_DIFF));
+
+			List<DiffEntry> diffEntries = DiffEntry.scan(treeWalk);
+			if (this.detectRenames) {
+				RenameDetector renameDetector = new RenameDetector(repository);
+				renameDetector.addAll(diffEntries);
+				return renameDetector.compute(reader, NullProgressMonitor.INSTANCE);
+			} else {
+				return diffEntries;
+			}
 		}
+	}
 
-		return Collections.unmodifiableSet(result);
+	private static List<FileChange> load(Repository repository, boolean workingTree, List<DiffEntry> diffEntries,
+			Consumer<FileChange> changeConsumer) {
+		try (ObjectReader reader = repository.newObjectReader()) {
+			ContentSource.Pair contentSource = new ContentSource.Pair(ContentSource.create(reader),
+					workingTree
+							? ContentSource.create(new FileTreeIterator(repository))
+							: ContentSource.create(reader));
+
+			List<FileChange> result = new ArrayList<>(diffEntries.size());
+			for (DiffEntry diffEntry : diffEntries) {
+				Optional<FileChange> change = toFileChange(contentSource, diffEntry);
+				if (change.isPresent()) {
+					result.add(change.get());
+					changeConsumer.accept(change.get());
+				}
+			}
+			return result;
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
 	}
 
-	private static AbstractTreeIterator createTreeIterator(Repository repository, ObjectId objectId)
+	/**
+	 * Returns an empty optional for binary files (same detection and size threshold as Git's diff).
+	 */
+	private static Optional<FileChange> toFileChange(ContentSource.Pair contentSource, DiffEntry diffEntry)
 			throws IOException {
-		CanonicalTreeParser treeParser = new CanonicalTreeParser();
+		try {
+			Optional<String> previousContent = load(contentSource, Side.OLD, diffEntry);
+			Optional<String> currentContent = load(contentSource, Side.NEW, diffEntry);
+
+			return previousContent.isPresent() || currentContent.isPresent()
+					? Optional.of(new FileChange(diffEntry.getChangeType() == DiffEntry.ChangeType.DELETE
+							? diffEntry.getOldPath()
+							: diffEntry.getNewPath(), previousContent, currentContent))
+					: Optional.empty();
+		} catch (BinaryBlobException ex) {
+			return Optional.empty();
+		}
+	}
 
-		try (ObjectReader curs = repository.newObjectReader()) {
-			treeParser.reset(curs, new RevWalk(repository).parseTree(objectId));
+	private static Optional<String> load(ContentSource.Pair contentSource, Side side, DiffEntry diffEntry)
+			throws IOException, BinaryBlobException {
+		FileMode mode = diffEntry.getMode(side);
+		if (mode == FileMode.MISSING || mode.getObjectType() != Constants.OBJ_BLOB) {
+			return Optional.empty();
 		}
 
-		return treeParser;
+		RawText text = RawText.load(contentSource.open(side, diffEntry), PackConfig.DEFAULT_BIG_FILE_THRESHOLD);
+		return Optional.of(RawParseUtils.decode(text.getRawContent()));
 	}
 
-	private static class NoopOutputStream extends OutputStream {
-
-		@Override
-		public void write(int b) throws IOException {
-		}
+	private static AbstractTreeIterator createTreeIterator(GitSession session, ObjectId objectId) throws IOException {
+		CanonicalTreeParser treeParser = new CanonicalTreeParser();
+		treeParser.reset(session.getReader(), session.getRevWalk().parseTree(objectId));
+		return treeParser;
 	}
 }
@@ -0,0 +1,123 @@
+package com.scheible.testgapanalysis.jacoco;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.scheible.testgapanalysis.common.FilesUtils;
+import com.scheible.testgapanalysis.common.ParallelUtils;
+
+/**
+ * JaCoCo report parser that persists the merged coverage of a set of reports in a compact binary snapshot
+ * file. As long as the reports are unchanged (same paths, sizes and modification times) later runs read the
+ * snapshot instead of parsing the XML reports again.
+ *
+ * @author sj
+ */
+public class CachingJaCoCoReportParser extends JaCoCoReportParser {
+
+	protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+	private final Path snapshotFile;
+
+	public CachingJaCoCoReportParser(File snapshotFile, Engine engine, int parallelism) {
+		super(engine, parallelism);
+		this.snapshotFile = snapshotFile.toPath();
+	}
+
+	public CachingJaCoCoReportParser(File snapshotFile) {
+		this(snapshotFile, Engine.STREAMING, ParallelUtils.getDefaultParallelism());
+	}
+
+	@Override
+	public CoverageStore getInstrumentedMethods(Set<File> reportFiles) {
+		List<String> fingerprint = FilesUtils.getFingerprint(reportFiles);
+
+		Optional<CoverageStore> snapshotMethods = read(fingerprint);
+		if (snapshotMethods.isPresent()) {
+			return snapshotMethods.get();
+		}
+
+		CoverageStore methods = super.getInstrumentedMethods(reportFiles);
+		write(fingerprint, methods);
+		return methods;
+	}
+
+	/**
+	 * The snapshot always contains the coverage of all classes, the top level types are therefore filtered after
+	 * the snapshot was read (or written).
+	 */
+	@Override
+	public CoverageStore getInstrumentedMethods(Set<File> reportFiles, Set<String> topLevelTypeFqns) {
+		return getInstrumentedMethods(reportFiles).getTopLevelTypes(topLevelTypeFqns);
+	}
+
+	private Optional<CoverageStore> read(List<String> fingerprint) {
+		if (!Files.exists(this.snapshotFile)) {
+			return Optional.empty();
+		}
+
+		// read into a heap buffer instead of mapping the file, a mapping that is still alive would prevent
+		// replacing the snapshot on Windows
+		try (FileChannel channel = FileChannel.open(this.snapshotFile, StandardOpenOption.READ)) {
+			ByteBuffer input = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+			int readCount = 0;
+			while (input.hasRemaining() && readCount >= 0) {
+				readCount = channel.read(input);
+			}
+			input.flip();
+			return CoverageSnapshotUtils.read(input, fingerprint);
+		} catch (IOException ex) {
+			this.logger.debug("Can't read coverage snapshot '{}'.", this.snapshotFile, ex);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * The snapshot is written to a temporary file first and then moved. That way a concurrent run never reads a
+	 * partially written snapshot.
+	 */
+	private void write(List<String> fingerprint, Set<InstrumentedMethod> methods) {
+		Path tempFile = null;
+
+		try {
+			Path parentDir = this.snapshotFile.toAbsolutePath().getParent();
+			Files.createDirectories(parentDir);
+			tempFile = Files.createTempFile(parentDir, this.snapshotFile.getFileName().toString(), ".tmp");
+			try (OutputStream output = Files.newOutputStream(tempFile);
+					DataOutputStream dataOutput = new DataOutputStream(new BufferedOutputStream(output))) {
+				CoverageSnapshotUtils.write(dataOutput, fingerprint, methods);
+			}
+
+			Files.move(tempFile, this.snapshotFile, StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException ex) {
+			this.logger.warn("Can't write coverage snapshot '{}'.", this.snapshotFile, ex);
+			deleteIfExists(tempFile);
+		}
+	}
+
+	private void deleteIfExists(Path file) {
+		if (file != null) {
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException ex) {
+				this.logger.debug("Can't delete temporary coverage snapshot '{}'.", file, ex);
+			}
+		}
+	}
+}
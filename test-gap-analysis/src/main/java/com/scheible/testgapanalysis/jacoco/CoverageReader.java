@@ -0,0 +1,19 @@
+package com.scheible.testgapanalysis.jacoco;
+
+import java.io.File;
+import java.util.Set;
+
+/**
+ * Source of the coverage information of the methods of a set of top level types.
+ *
+ * @author sj
+ */
+public interface CoverageReader {
+
+	/**
+	 * Reads the coverage of the given files. The result contains at least the methods of the given top level
+	 * types (fully qualified names like {@code 'org.example.Foo'}), but might contain the methods of other types
+	 * too.
+	 */
+	Set<InstrumentedMethod> getInstrumentedMethods(Set<File> coverageFiles, Set<String> topLevelTypeFqns);
+}
@@ -0,0 +1,102 @@
+package com.scheible.testgapanalysis.jacoco;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Binary format of the merged coverage of a set of JaCoCo reports. All class names, method names and
+ * descriptors are stored once in a string table, the methods itself are only five integers each. The snapshot
+ * starts with a fingerprint (path, size and modification time) of the reports it was created from. A snapshot
+ * whose fingerprint doesn't match the current reports is not read at all.
+ *
+ * @author sj
+ */
+abstract class CoverageSnapshotUtils {
+
+	private static final int FORMAT_VERSION = 1;
+
+	private CoverageSnapshotUtils() {
+	}
+
+	static void write(DataOutput output, List<String> fingerprint, Set<InstrumentedMethod> methods) throws IOException {
+		Map<String, Integer> strings = new LinkedHashMap<>();
+		for (InstrumentedMethod method : methods) {
+			strings.putIfAbsent(method.getClassName(), strings.size());
+			strings.putIfAbsent(method.getName(), strings.size());
+			strings.putIfAbsent(method.getDescription(), strings.size());
+		}
+
+		output.writeInt(FORMAT_VERSION);
+		writeStrings(output, fingerprint);
+		writeStrings(output, strings.keySet());
+
+		output.writeInt(methods.size());
+		for (InstrumentedMethod method : methods) {
+			output.writeInt(strings.get(method.getClassName()));
+			output.writeInt(strings.get(method.getName()));
+			output.writeInt(strings.get(method.getDescription()));
+			output.writeInt(method.getLine());
+			output.writeInt(method.getCoveredInstructionCount());
+		}
+	}
+
+	/**
+	 * Returns an empty optional if the snapshot was written in an other format version or for other reports. The
+	 * methods are read directly into the columns of a coverage store, without creating an object per method.
+	 */
+	static Optional<CoverageStore> read(ByteBuffer input, List<String> fingerprint) {
+		try {
+			if (input.getInt() != FORMAT_VERSION || !readStrings(input).equals(fingerprint)) {
+				return Optional.empty();
+			}
+
+			List<String> strings = readStrings(input);
+			int count = input.getInt();
+			if (count > input.remaining() / (CoverageStore.COLUMN_COUNT * Integer.BYTES)) {
+				return Optional.empty();
+			}
+
+			int[][] columns = new int[CoverageStore.COLUMN_COUNT][count];
+			for (int i = 0; i < count; i++) {
+				for (int column = 0; column < CoverageStore.COLUMN_COUNT; column++) {
+					columns[column][i] = input.getInt();
+				}
+			}
+
+			return Optional.of(CoverageStore.of(strings, columns));
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+				| NegativeArraySizeException ex) {
+			return Optional.empty(); // truncated or otherwise corrupt snapshot
+		}
+	}
+
+	private static void writeStrings(DataOutput output, Collection<String> values) throws IOException {
+		output.writeInt(values.size());
+		for (String value : values) {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			output.writeInt(bytes.length);
+			output.write(bytes);
+		}
+	}
+
+	private static List<String> readStrings(ByteBuffer input) {
+		int size = input.getInt();
+		List<String> values = new ArrayList<>(Math.min(size, input.remaining() / 4));
+		for (int i = 0; i < size; i++) {
+			byte[] bytes = new byte[input.getInt()];
+			input.get(bytes);
+			values.add(new String(bytes, StandardCharsets.UTF_8));
+		}
+		return values;
+	}
+}
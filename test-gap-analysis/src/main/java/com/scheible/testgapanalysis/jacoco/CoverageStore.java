@@ -0,0 +1,285 @@
+package com.scheible.testgapanalysis.jacoco;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.scheible.testgapanalysis.common.JavaMethodUtils;
+
+/**
+ * Immutable set of instrumented methods that is stored column by column in primitive arrays. All class names,
+ * method names, descriptions and simple names are stored once in a string table, a method itself is only five
+ * integers (the indexes of its class name, name and description, its line and its covered instruction count).
+ * The methods are grouped by their top level type, the methods of some top level types are therefore found
+ * without looking at any other method. The {@code InstrumentedMethod} instances are flyweights that are only
+ * created while iterating, they share the strings of the table.
+ *
+ * @author sj
+ */
+public final class CoverageStore extends AbstractSet<InstrumentedMethod> {
+
+	static final int CLASS_NAME = 0;
+	static final int NAME = 1;
+	static final int DESCRIPTION = 2;
+	static final int LINE = 3;
+	static final int COVERED_INSTRUCTION_COUNT = 4;
+	static final int COLUMN_COUNT = 5;
+
+	private final StringTable strings;
+	private final int[][] columns;
+	private final String[] topLevelTypeFqns;
+	private final int[] topLevelTypeStarts;
+
+	private CoverageStore(StringTable strings, int[][] columns, String[] topLevelTypeFqns, int[] topLevelTypeStarts) {
+		this.strings = strings;
+		this.columns = columns;
+		this.topLevelTypeFqns = topLevelTypeFqns;
+		this.topLevelTypeStarts = topLevelTypeStarts;
+	}
+
+	public static CoverageStore of(Set<InstrumentedMethod> methods) {
+		if (methods instanceof CoverageStore) {
+			return (CoverageStore) methods;
+		}
+
+		List<String> strings = new ArrayList<>();
+		Map<String, Integer> stringIndexes = new HashMap<>();
+		int[][] columns = new int[COLUMN_COUNT][methods.size()];
+
+		int i = 0;
+		for (InstrumentedMethod method : methods) {
+			columns[CLASS_NAME][i] = intern(method.getClassName(), strings, stringIndexes);
+			columns[NAME][i] = intern(method.getName(), strings, stringIndexes);
+			columns[DESCRIPTION][i] = intern(method.getDescription(), strings, stringIndexes);
+			columns[LINE][i] = method.getLine();
+			columns[COVERED_INSTRUCTION_COUNT][i] = method.getCoveredInstructionCount();
+			i++;
+		}
+
+		return of(strings, stringIndexes, columns);
+	}
+
+	/**
+	 * Creates a store of the columns, the class name, name and description columns are indexes of the strings. An
+	 * {@code IndexOutOfBoundsException} is thrown if any of them is not.
+	 */
+	static CoverageStore of(List<String> strings, int[][] columns) {
+		checkStringIndexes(strings, columns);
+
+		Map<String, Integer> stringIndexes = new HashMap<>();
+		for (int i = 0; i < strings.size(); i++) {
+			stringIndexes.putIfAbsent(strings.get(i), i);
+		}
+		return of(strings, stringIndexes, columns);
+	}
+
+	/**
+	 * Same as {@link #of(List, int[][])} but with the index of every string already known, the map is extended by
+	 * the derived simple names.
+	 */
+	static CoverageStore of(List<String> strings, Map<String, Integer> stringIndexes, int[][] columns) {
+		// (unsorted) index of the top level type of every class name
+		int[] classTopLevelTypes = new int[strings.size()];
+		Arrays.fill(classTopLevelTypes, -1);
+		Map<String, Integer> topLevelTypeIndexes = new HashMap<>();
+
+		for (int className : columns[CLASS_NAME]) {
+			if (classTopLevelTypes[className] < 0) {
+				String topLevelTypeFqn = JaCoCoReportParser.getTopLevelTypeFqn(strings.get(className));
+				topLevelTypeIndexes.putIfAbsent(topLevelTypeFqn, topLevelTypeIndexes.size());
+				classTopLevelTypes[className] = topLevelTypeIndexes.get(topLevelTypeFqn);
+			}
+		}
+
+		String[] topLevelTypeFqns = topLevelTypeIndexes.keySet().toArray(new String[0]);
+		Arrays.sort(topLevelTypeFqns);
+		int[] ranks = new int[topLevelTypeFqns.length];
+		for (int rank = 0; rank < topLevelTypeFqns.length; rank++) {
+			ranks[topLevelTypeIndexes.get(topLevelTypeFqns[rank])] = rank;
+		}
+		for (int className = 0; className < classTopLevelTypes.length; className++) {
+			if (classTopLevelTypes[className] >= 0) {
+				classTopLevelTypes[className] = ranks[classTopLevelTypes[className]];
+			}
+		}
+
+		int[] topLevelTypeStarts = new int[topLevelTypeFqns.length + 1];
+		int[][] groupedColumns = groupByTopLevelType(columns, classTopLevelTypes, topLevelTypeStarts);
+		return new CoverageStore(new StringTable(strings, stringIndexes, groupedColumns[CLASS_NAME]), groupedColumns,
+				topLevelTypeFqns, topLevelTypeStarts);
+	}
+
+	private static void checkStringIndexes(List<String> strings, int[][] columns) {
+		for (int column : new int[]{CLASS_NAME, NAME, DESCRIPTION}) {
+			for (int index : columns[column]) {
+				if (index < 0 || index >= strings.size()) {
+					throw new IndexOutOfBoundsException("No string with index " + index + ".");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Counting sort of the methods by the (sorted) index of their top level type, the start of every top level
+	 * type is stored in the passed array.
+	 */
+	private static int[][] groupByTopLevelType(int[][] columns, int[] classTopLevelTypes, int[] topLevelTypeStarts) {
+		int methodCount = columns[CLASS_NAME].length;
+		for (int className : columns[CLASS_NAME]) {
+			topLevelTypeStarts[classTopLevelTypes[className] + 1]++;
+		}
+		for (int i = 1; i < topLevelTypeStarts.length; i++) {
+			topLevelTypeStarts[i] += topLevelTypeStarts[i - 1];
+		}
+
+		int[] next = Arrays.copyOf(topLevelTypeStarts, topLevelTypeStarts.length - 1);
+		int[][] groupedColumns = new int[COLUMN_COUNT][methodCount];
+		for (int i = 0; i < methodCount; i++) {
+			int position = next[classTopLevelTypes[columns[CLASS_NAME][i]]]++;
+			for (int column = 0; column < COLUMN_COUNT; column++) {
+				groupedColumns[column][position] = columns[column][i];
+			}
+		}
+		return groupedColumns;
+	}
+
+	static int intern(String value, List<String> strings, Map<String, Integer> stringIndexes) {
+		Integer index = stringIndexes.get(value);
+		if (index == null) {
+			index = strings.size();
+			strings.add(value);
+			stringIndexes.put(value, index);
+		}
+		return index;
+	}
+
+	/**
+	 * The methods of the given top level types (fully qualified names like {@code 'org.example.Foo'}), the string
+	 * table is shared with this store.
+	 */
+	public CoverageStore getTopLevelTypes(Set<String> topLevelTypeFqns) {
+		String[] selectedFqns = topLevelTypeFqns.stream()
+				.filter(topLevelTypeFqn -> Arrays.binarySearch(this.topLevelTypeFqns, topLevelTypeFqn) >= 0).sorted()
+				.toArray(String[]::new);
+
+		int[] starts = new int[selectedFqns.length + 1];
+		for (int i = 0; i < selectedFqns.length; i++) {
+			int topLevelType = Arrays.binarySearch(this.topLevelTypeFqns, selectedFqns[i]);
+			starts[i + 1] = starts[i] + this.topLevelTypeStarts[topLevelType + 1]
+					- this.topLevelTypeStarts[topLevelType];
+		}
+
+		int[][] selectedColumns = new int[COLUMN_COUNT][starts[selectedFqns.length]];
+		for (int i = 0; i < selectedFqns.length; i++) {
+			int topLevelType = Arrays.binarySearch(this.topLevelTypeFqns, selectedFqns[i]);
+			for (int column = 0; column < COLUMN_COUNT; column++) {
+				System.arraycopy(this.columns[column], this.topLevelTypeStarts[topLevelType], selectedColumns[column],
+						starts[i], starts[i + 1] - starts[i]);
+			}
+		}
+
+		return new CoverageStore(this.strings, selectedColumns, selectedFqns, starts);
+	}
+
+	/**
+	 * Only the methods of the same top level type are compared.
+	 */
+	@Override
+	public boolean contains(Object obj) {
+		int topLevelType = obj instanceof InstrumentedMethod
+				? Arrays.binarySearch(this.topLevelTypeFqns,
+						JaCoCoReportParser.getTopLevelTypeFqn(((InstrumentedMethod) obj).getClassName()))
+				: -1;
+
+		if (topLevelType >= 0) {
+			for (int i = this.topLevelTypeStarts[topLevelType]; i < this.topLevelTypeStarts[topLevelType + 1]; i++) {
+				if (get(i).equals(obj)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return this.columns[CLASS_NAME].length;
+	}
+
+	@Override
+	public Iterator<InstrumentedMethod> iterator() {
+		return new Iterator<InstrumentedMethod>() {
+
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return this.next < size();
+			}
+
+			@Override
+			public InstrumentedMethod next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return get(this.next++);
+			}
+		};
+	}
+
+	private InstrumentedMethod get(int index) {
+		int className = this.columns[CLASS_NAME][index];
+		return new InstrumentedMethod(this.strings.get(className), this.strings.getSimpleClassName(className),
+				this.strings.getEnclosingSimpleName(className), this.strings.get(this.columns[NAME][index]),
+				this.strings.get(this.columns[DESCRIPTION][index]), this.columns[LINE][index],
+				this.columns[COVERED_INSTRUCTION_COUNT][index]);
+	}
+
+	/**
+	 * The strings of a store and the simple names that are derived from its class names. The simple names are
+	 * derived once per class name and are interned with the other strings, a simple name that is also a class
+	 * name (default package) or a method name is therefore stored only once.
+	 */
+	private static final class StringTable {
+
+		private final String[] strings;
+		private final int[] simpleClassNames;
+		private final int[] enclosingSimpleNames;
+
+		private StringTable(List<String> strings, Map<String, Integer> stringIndexes, int[] classNames) {
+			List<String> allStrings = new ArrayList<>(strings);
+			this.simpleClassNames = new int[strings.size()];
+			this.enclosingSimpleNames = new int[strings.size()];
+			Arrays.fill(this.simpleClassNames, -1);
+
+			for (int className : classNames) {
+				if (this.simpleClassNames[className] < 0) {
+					String simpleClassName = JavaMethodUtils.getSimpleName(strings.get(className), "/");
+					this.simpleClassNames[className] = intern(simpleClassName, allStrings, stringIndexes);
+					this.enclosingSimpleNames[className] = intern(JavaMethodUtils.getSimpleName(simpleClassName, "$"),
+							allStrings, stringIndexes);
+				}
+			}
+
+			this.strings = allStrings.toArray(new String[0]);
+		}
+
+		private String get(int index) {
+			return this.strings[index];
+		}
+
+		private String getSimpleClassName(int className) {
+			return this.strings[this.simpleClassNames[className]];
+		}
+
+		private String getEnclosingSimpleName(int className) {
+			return this.strings[this.enclosingSimpleNames[className]];
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package com.scheible.testgapanalysis.jacoco;
+
+import static com.scheible.testgapanalysis.jacoco.CoverageStore.CLASS_NAME;
+import static com.scheible.testgapanalysis.jacoco.CoverageStore.COLUMN_COUNT;
+import static com.scheible.testgapanalysis.jacoco.CoverageStore.COVERED_INSTRUCTION_COUNT;
+import static com.scheible.testgapanalysis.jacoco.CoverageStore.DESCRIPTION;
+import static com.scheible.testgapanalysis.jacoco.CoverageStore.LINE;
+import static com.scheible.testgapanalysis.jacoco.CoverageStore.NAME;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Merges the methods of multiple JaCoCo reports directly into the string table and the columns of a
+ * {@link CoverageStore}. A method that was already added (same class name, name, description and line) only
+ * adds its covered instruction count to the existing row, the same count is only added once per method (as in
+ * {@link InstrumentedMethod#merge(java.util.Collection)} of a set of methods). The rows are looked up in an
+ * open addressing table of row indexes, only methods with different counts in different reports need an
+ * object for their additional counts. Can be called concurrently from any number of threads.
+ *
+ * @author sj
+ */
+final class CoverageStoreBuilder {
+
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final int FIRST_COVERED_INSTRUCTION_COUNT = COLUMN_COUNT;
+	private static final int SECOND_COVERED_INSTRUCTION_COUNT = COLUMN_COUNT + 1;
+
+	private final List<String> strings = new ArrayList<>();
+	private final Map<String, Integer> stringIndexes = new HashMap<>();
+
+	private int[][] columns = new int[COLUMN_COUNT + 2][INITIAL_CAPACITY];
+	private int size = 0;
+	// row index + 1 of every used slot (0 is a free slot), at most half of the slots are used
+	private int[] slots = new int[INITIAL_CAPACITY * 2];
+	private final Map<Integer, Set<Integer>> additionalCoveredInstructionCounts = new HashMap<>();
+
+	synchronized void add(String className, String name, String description, int line, int coveredInstructionCount) {
+		int classNameIndex = CoverageStore.intern(className, this.strings, this.stringIndexes);
+		int nameIndex = CoverageStore.intern(name, this.strings, this.stringIndexes);
+		int descriptionIndex = CoverageStore.intern(description, this.strings, this.stringIndexes);
+
+		int slot = findSlot(classNameIndex, nameIndex, descriptionIndex, line);
+		if (this.slots[slot] > 0) {
+			merge(this.slots[slot] - 1, coveredInstructionCount);
+			return;
+		}
+
+		if (this.size == this.columns[CLASS_NAME].length) {
+			for (int column = 0; column < this.columns.length; column++) {
+				this.columns[column] = Arrays.copyOf(this.columns[column], this.size * 2);
+			}
+		}
+
+		this.columns[CLASS_NAME][this.size] = classNameIndex;
+		this.columns[NAME][this.size] = nameIndex;
+		this.columns[DESCRIPTION][this.size] = descriptionIndex;
+		this.columns[LINE][this.size] = line;
+		this.columns[COVERED_INSTRUCTION_COUNT][this.size] = coveredInstructionCount;
+		this.columns[FIRST_COVERED_INSTRUCTION_COUNT][this.size] = coveredInstructionCount;
+		this.columns[SECOND_COVERED_INSTRUCTION_COUNT][this.size] = -1;
+		this.slots[slot] = ++this.size;
+
+		if (this.size * 2 > this.slots.length) {
+			rehash();
+		}
+	}
+
+	/**
+	 * The builder can't be used anymore afterwards.
+	 */
+	synchronized CoverageStore build() {
+		this.slots = null;
+		this.additionalCoveredInstructionCounts.clear();
+		this.columns[FIRST_COVERED_INSTRUCTION_COUNT] = null;
+		this.columns[SECOND_COVERED_INSTRUCTION_COUNT] = null;
+
+		int[][] trimmedColumns = new int[COLUMN_COUNT][];
+		for (int column = 0; column < COLUMN_COUNT; column++) {
+			trimmedColumns[column] = Arrays.copyOf(this.columns[column], this.size);
+			this.columns[column] = null;
+		}
+		return CoverageStore.of(this.strings, this.stringIndexes, trimmedColumns);
+	}
+
+	private void merge(int row, int coveredInstructionCount) {
+		int[] firstCounts = this.columns[FIRST_COVERED_INSTRUCTION_COUNT];
+		int[] secondCounts = this.columns[SECOND_COVERED_INSTRUCTION_COUNT];
+		if (firstCounts[row] == coveredInstructionCount || secondCounts[row] == coveredInstructionCount) {
+			return;
+		}
+
+		if (secondCounts[row] < 0) {
+			secondCounts[row] = coveredInstructionCount;
+		} else if (!this.additionalCoveredInstructionCounts.computeIfAbsent(row, key -> new HashSet<>())
+				.add(coveredInstructionCount)) {
+			return;
+		}
+		this.columns[COVERED_INSTRUCTION_COUNT][row] += coveredInstructionCount;
+	}
+
+	/**
+	 * The slot of the row with the passed key or the free slot where it has to be inserted.
+	 */
+	private int findSlot(int className, int name, int description, int line) {
+		int mask = this.slots.length - 1;
+		int slot = hash(className, name, description, line) & mask;
+		while (this.slots[slot] > 0 && !hasKey(this.slots[slot] - 1, className, name, description, line)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private boolean hasKey(int row, int className, int name, int description, int line) {
+		return this.columns[CLASS_NAME][row] == className && this.columns[NAME][row] == name
+				&& this.columns[DESCRIPTION][row] == description && this.columns[LINE][row] == line;
+	}
+
+	private void rehash() {
+		this.slots = new int[this.slots.length * 2];
+		for (int row = 0; row < this.size; row++) {
+			this.slots[findSlot(this.columns[CLASS_NAME][row], this.columns[NAME][row], this.columns[DESCRIPTION][row],
+					this.columns[LINE][row])] = row + 1;
+		}
+	}
+
+	private static int hash(int className, int name, int description, int line) {
+		int hash = ((className * 31 + name) * 31 + description) * 31 + line;
+		hash *= 0x9E3779B9; // spreads consecutive string indexes over the whole table
+		return hash ^ (hash >>> 16);
+	}
+}
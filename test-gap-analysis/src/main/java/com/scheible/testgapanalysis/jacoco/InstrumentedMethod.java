@@ -23,9 +23,20 @@ public class InstrumentedMethod {
 
 	public InstrumentedMethod(String className, String name, String description, int line,
 			int coveredInstructionCount) {
+		this(className, JavaMethodUtils.getSimpleName(className, "/"),
+				JavaMethodUtils.getSimpleName(JavaMethodUtils.getSimpleName(className, "/"), "$"), name, description,
+				line, coveredInstructionCount);
+	}
+
+	/**
+	 * Used by {@link CoverageStore} for its flyweights, the simple names were already derived (and shared) once
+	 * per class.
+	 */
+	InstrumentedMethod(String className, String simpleClassName, String enclosingSimpleName, String name,
+			String description, int line, int coveredInstructionCount) {
 		this.className = className;
-		this.simpleClassName = JavaMethodUtils.getSimpleName(className, "/");
-		this.enclosingSimpleName = JavaMethodUtils.getSimpleName(this.simpleClassName, "$");
+		this.simpleClassName = simpleClassName;
+		this.enclosingSimpleName = enclosingSimpleName;
 		this.name = name;
 		this.description = description;
 		this.line = line;
@@ -0,0 +1,84 @@
+package com.scheible.testgapanalysis.jacoco;
+
+import java.io.StringReader;
+import java.util.function.Predicate;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * SAX handler that walks a JaCoCo XML report exactly once and emits the attributes of a method for every
+ * {@code /report/package/class/method/counter[@type = 'INSTRUCTION']} element as soon as it is seen. No
+ * document tree is ever materialized, only the attributes of the current class and method are kept. Classes
+ * whose name is not accepted by the filter are skipped including all their methods.
+ *
+ * @author sj
+ */
+class InstrumentedMethodHandler extends DefaultHandler {
+
+	@FunctionalInterface
+	interface MethodConsumer {
+
+		void accept(String className, String name, String description, int line, int coveredInstructionCount);
+	}
+
+	private static final String[] METHOD_PATH = {"report", "package", "class", "method"};
+
+	private final Predicate<String> classNameFilter;
+	private final MethodConsumer consumer;
+
+	private int depth = 0;
+	private int matchedDepth = 0;
+
+	private String className;
+	private String methodName;
+	private String methodDescription;
+	private String methodLine;
+
+	InstrumentedMethodHandler(Predicate<String> classNameFilter, MethodConsumer consumer) {
+		this.classNameFilter = classNameFilter;
+		this.consumer = consumer;
+	}
+
+	@Override
+	public InputSource resolveEntity(String publicId, String systemId) {
+		return systemId.contains("report.dtd") ? new InputSource(new StringReader("")) : null;
+	}
+
+	@Override
+	public void startElement(String uri, String localName, String qName, Attributes attributes) {
+		this.depth++;
+
+		if (this.matchedDepth == this.depth - 1 && this.depth <= METHOD_PATH.length
+				&& METHOD_PATH[this.depth - 1].equals(qName)) {
+			if (this.depth == 3) {
+				this.className = attributes.getValue("name");
+				if (!this.classNameFilter.test(this.className)) {
+					return; // not matching the class element skips all its children
+				}
+			}
+
+			this.matchedDepth = this.depth;
+
+			if (this.depth == 4) {
+				this.methodName = attributes.getValue("name");
+				this.methodDescription = attributes.getValue("desc");
+				this.methodLine = attributes.getValue("line");
+			}
+		} else if (this.matchedDepth == METHOD_PATH.length && this.depth == METHOD_PATH.length + 1
+				&& "counter".equals(qName) && "INSTRUCTION".equals(attributes.getValue("type"))) {
+			this.consumer.accept(this.className, this.methodName, this.methodDescription,
+					Integer.parseInt(this.methodLine), Integer.parseInt(attributes.getValue("covered")));
+		}
+	}
+
+	@Override
+	public void endElement(String uri, String localName, String qName) {
+		if (this.matchedDepth == this.depth) {
+			this.matchedDepth--;
+		}
+
+		this.depth--;
+	}
+}
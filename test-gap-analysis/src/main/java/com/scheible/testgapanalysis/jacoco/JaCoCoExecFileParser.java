@@ -0,0 +1,118 @@
+package com.scheible.testgapanalysis.jacoco;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jacoco.core.analysis.Analyzer;
+import org.jacoco.core.analysis.CoverageBuilder;
+import org.jacoco.core.analysis.IClassCoverage;
+import org.jacoco.core.analysis.IMethodCoverage;
+import org.jacoco.core.analysis.ISourceNode;
+import org.jacoco.core.tools.ExecFileLoader;
+
+/**
+ * Reads the coverage directly from JaCoCo execution data files ({@code jacoco.exec}) and the compiled
+ * classes, no XML report is required. Only the class files of the requested top level types (including all
+ * their nested, local and anonymous classes) are analyzed.
+ *
+ * @author sj
+ */
+public class JaCoCoExecFileParser implements CoverageReader {
+
+	private final File classesDir;
+
+	public JaCoCoExecFileParser(File classesDir) {
+		this.classesDir = classesDir;
+	}
+
+	/**
+	 * The execution data of all files is merged before the classes are analyzed, a method is therefore covered if
+	 * it was covered in any of the files.
+	 */
+	@Override
+	public Set<InstrumentedMethod> getInstrumentedMethods(Set<File> execFiles, Set<String> topLevelTypeFqns) {
+		try {
+			ExecFileLoader execFileLoader = new ExecFileLoader();
+			for (File execFile : execFiles) {
+				execFileLoader.load(execFile);
+			}
+
+			CoverageBuilder coverageBuilder = new CoverageBuilder();
+			Analyzer analyzer = new Analyzer(execFileLoader.getExecutionDataStore(), coverageBuilder);
+			for (String topLevelTypeFqn : topLevelTypeFqns) {
+				for (Path classFile : findClassFiles(topLevelTypeFqn)) {
+					try (InputStream input = Files.newInputStream(classFile)) {
+						analyzer.analyzeClass(input, classFile.toString());
+					}
+				}
+			}
+
+			Set<InstrumentedMethod> result = new HashSet<>();
+			for (IClassCoverage classCoverage : coverageBuilder.getClasses()) {
+				for (IMethodCoverage methodCoverage : classCoverage.getMethods()) {
+					// same as the XML report, that omits the line of methods without debug information
+					if (methodCoverage.getFirstLine() != ISourceNode.UNKNOWN_LINE) {
+						result.add(new InstrumentedMethod(classCoverage.getName(), methodCoverage.getName(),
+								methodCoverage.getDesc(), methodCoverage.getFirstLine(),
+								methodCoverage.getInstructionCounter().getCoveredCount()));
+					}
+				}
+			}
+			return result;
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Finds the class file of the top level type itself and the ones of all its nested, local and anonymous
+	 * classes (they all share the {@code 'TopLevelType$'} prefix).
+	 */
+	private List<Path> findClassFiles(String topLevelTypeFqn) throws IOException {
+		int lastDotIndex = topLevelTypeFqn.lastIndexOf('.');
+		Path packageDir = this.classesDir.toPath()
+				.resolve(topLevelTypeFqn.substring(0, lastDotIndex + 1).replace('.', File.separatorChar));
+		String simpleName = topLevelTypeFqn.substring(lastDotIndex + 1);
+
+		List<Path> classFiles = new ArrayList<>();
+		if (Files.isDirectory(packageDir)) {
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(packageDir,
+					file -> isClassFileOf(file.getFileName().toString(), simpleName))) {
+				files.forEach(classFiles::add);
+			}
+		}
+		return classFiles;
+	}
+
+	private static boolean isClassFileOf(String fileName, String simpleName) {
+		return fileName.equals(simpleName + ".class")
+				|| (fileName.startsWith(simpleName + "$") && fileName.endsWith(".class"));
+	}
+
+	public static Set<File> findJaCoCoExecFiles(File baseDir, File... excludeDirs) {
+		Set<Path> excludeDirsAsPaths = Stream.of(excludeDirs).map(File::toPath).collect(Collectors.toSet());
+		Predicate<Path> isNotChildOfExcludeDir = JaCoCoReportParser.getIsNotChildOfSubDirsPredicate(excludeDirsAsPaths);
+		PathMatcher jaCoCoExecFileMatcher = FileSystems.getDefault().getPathMatcher("glob:**/*.exec");
+
+		try (Stream<Path> files = Files.walk(baseDir.toPath())) {
+			return files.filter(jaCoCoExecFileMatcher::matches).filter(isNotChildOfExcludeDir).map(Path::toFile)
+					.collect(Collectors.toSet());
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+}
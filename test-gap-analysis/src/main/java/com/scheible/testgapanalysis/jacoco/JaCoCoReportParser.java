@@ -9,10 +9,7 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -22,6 +19,7 @@ import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
@@ -33,25 +31,95 @@ import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
+import com.scheible.testgapanalysis.common.ParallelUtils;
+import com.scheible.testgapanalysis.jacoco.InstrumentedMethodHandler.MethodConsumer;
+
 /**
  *
  * @author sj
  */
-public class JaCoCoReportParser {
+public class JaCoCoReportParser implements CoverageReader {
+
+	/**
+	 * The {@code STREAMING} engine walks the report once with a SAX parser and never materializes the document.
+	 * The {@code DOM} engine builds the full document and evaluates a XPath expression on it, it is kept for
+	 * comparison purposes only.
+	 */
+	public enum Engine {
+		STREAMING, DOM
+	}
+
+	private static final Predicate<String> ALL_CLASSES = className -> true;
+
+	private final Engine engine;
+	private final int parallelism;
+
+	public JaCoCoReportParser(Engine engine, int parallelism) {
+		this.engine = engine;
+		this.parallelism = parallelism;
+	}
+
+	public JaCoCoReportParser(Engine engine) {
+		this(engine, ParallelUtils.getDefaultParallelism());
+	}
+
+	public JaCoCoReportParser() {
+		this(Engine.STREAMING);
+	}
 
 	public Set<InstrumentedMethod> getInstrumentedMethods(String reportXmlContent) {
-		return getInstrumentedMethods(new InputSource(new StringReader(reportXmlContent)));
+		return parse(new InputSource(new StringReader(reportXmlContent)), ALL_CLASSES);
 	}
 
 	public Set<InstrumentedMethod> getInstrumentedMethods(File reportXmlFile) {
+		return parse(reportXmlFile, ALL_CLASSES);
+	}
+
+	private Set<InstrumentedMethod> parse(File reportXmlFile, Predicate<String> classNameFilter) {
+		Set<InstrumentedMethod> result = new HashSet<>(8);
+		parse(reportXmlFile, classNameFilter, (className, name, description, line, coveredInstructionCount) -> result
+				.add(new InstrumentedMethod(className, name, description, line, coveredInstructionCount)));
+		return result;
+	}
+
+	private Set<InstrumentedMethod> parse(InputSource inputSource, Predicate<String> classNameFilter) {
+		Set<InstrumentedMethod> result = new HashSet<>(8);
+		parse(inputSource, classNameFilter, (className, name, description, line, coveredInstructionCount) -> result
+				.add(new InstrumentedMethod(className, name, description, line, coveredInstructionCount)));
+		return result;
+	}
+
+	private void parse(File reportXmlFile, Predicate<String> classNameFilter, MethodConsumer consumer) {
 		try (InputStream input = Files.newInputStream(reportXmlFile.toPath())) {
-			return getInstrumentedMethods(new InputSource(input));
+			parse(new InputSource(input), classNameFilter, consumer);
 		} catch (IOException ex) {
 			throw new UncheckedIOException(ex);
 		}
 	}
 
-	private Set<InstrumentedMethod> getInstrumentedMethods(InputSource inputSource) {
+	private void parse(InputSource inputSource, Predicate<String> classNameFilter, MethodConsumer consumer) {
+		if (this.engine == Engine.DOM) {
+			parseDom(inputSource).stream().filter(method -> classNameFilter.test(method.getClassName()))
+					.forEach(method -> consumer.accept(method.getClassName(), method.getName(), method.getDescription(),
+							method.getLine(), method.getCoveredInstructionCount()));
+		} else {
+			parseStreaming(inputSource, classNameFilter, consumer);
+		}
+	}
+
+	private static void parseStreaming(InputSource inputSource, Predicate<String> classNameFilter,
+			MethodConsumer consumer) {
+		try {
+			SAXParserFactory parserFactory = SAXParserFactory.newInstance();
+			parserFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+
+			parserFactory.newSAXParser().parse(inputSource, new InstrumentedMethodHandler(classNameFilter, consumer));
+		} catch (ParserConfigurationException | IOException | SAXException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static Set<InstrumentedMethod> parseDom(InputSource inputSource) {
 		try {
 			DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
 			builderFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
@@ -90,20 +158,28 @@ public class JaCoCoReportParser {
 	/**
 	 * Reads multiple JaCoCo reports that could contain coverage inforamtion for the same methods (e.g. coverage
 	 * report for unit and integration tests). This methods takes care of merging multiple entries for the same
-	 * method.
+	 * method. The reports are parsed concurrently and every method is merged into the store as soon as it is
+	 * parsed, no object is kept per method. Merging only sums the distinct covered instruction counts, the result
+	 * therefore does not depend on the order in which the reports were processed.
 	 */
-	public Set<InstrumentedMethod> getInstrumentedMethods(Set<File> reportFiles) {
-		Map<String, Set<InstrumentedMethod>> methods = new HashMap<>();
+	public CoverageStore getInstrumentedMethods(Set<File> reportFiles) {
+		return parse(reportFiles, ALL_CLASSES);
+	}
 
-		for (File reportFile : reportFiles) {
-			for (InstrumentedMethod method : getInstrumentedMethods(reportFile)) {
-				String key = method.getClassName() + method.getName() + method.getDescription() + method.getLine();
-				methods.computeIfAbsent(key, k -> new HashSet<>()).add(method);
-			}
-		}
+	/**
+	 * Only the classes of the given top level types (including their nested classes) are materialized, all other
+	 * classes of the reports are skipped while parsing.
+	 */
+	@Override
+	public CoverageStore getInstrumentedMethods(Set<File> reportFiles, Set<String> topLevelTypeFqns) {
+		return parse(reportFiles, className -> topLevelTypeFqns.contains(getTopLevelTypeFqn(className)));
+	}
 
-		return methods.entrySet().stream().map(Entry::getValue).map(InstrumentedMethod::merge)
-				.collect(Collectors.toSet());
+	private CoverageStore parse(Set<File> reportFiles, Predicate<String> classNameFilter) {
+		CoverageStoreBuilder builder = new CoverageStoreBuilder();
+		ParallelUtils.forEach(reportFiles, reportFile -> parse(reportFile, classNameFilter, builder::add),
+				this.parallelism);
+		return builder.build();
 	}
 
 	public static Set<File> findJaCoCoReportFiles(File baseDir, File... excludeDirs) {
@@ -119,6 +195,15 @@ public class JaCoCoReportParser {
 		}
 	}
 
+	/**
+	 * Converts a JaCoCo class name like {@code 'org/example/Foo$Bar'} to the fully qualified name of its top
+	 * level type ({@code 'org.example.Foo'}).
+	 */
+	static String getTopLevelTypeFqn(String className) {
+		int dollarIndex = className.indexOf('$');
+		return (dollarIndex > 0 ? className.substring(0, dollarIndex) : className).replace('/', '.');
+	}
+
 	static Predicate<Path> getIsNotChildOfSubDirsPredicate(Set<Path> subDirs) {
 		return jaCoCoReport -> subDirs.stream().filter(excludeDir -> jaCoCoReport.startsWith(excludeDir)).count() == 0;
 	}
@@ -0,0 +1,57 @@
+package com.scheible.testgapanalysis.jacoco;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.scheible.testgapanalysis.common.FilesUtils;
+
+/**
+ * Keeps the coverage of every top level type in memory (in a compact {@link CoverageStore}) as long as the
+ * coverage files are unchanged (same paths, sizes and modification times). Only the coverage of top level
+ * types that were never requested before is read from the delegate, that way a long-running process answers
+ * repeated requests without reading any coverage file.
+ *
+ * @author sj
+ */
+public class MemoizingCoverageReader implements CoverageReader {
+
+	private final CoverageReader delegate;
+
+	private List<String> fingerprint = Collections.emptyList();
+	private final Map<String, CoverageStore> topLevelTypeMethods = new HashMap<>();
+
+	public MemoizingCoverageReader(CoverageReader delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public synchronized Set<InstrumentedMethod> getInstrumentedMethods(Set<File> coverageFiles,
+			Set<String> topLevelTypeFqns) {
+		List<String> currentFingerprint = FilesUtils.getFingerprint(coverageFiles);
+		if (!currentFingerprint.equals(this.fingerprint)) {
+			this.fingerprint = currentFingerprint;
+			this.topLevelTypeMethods.clear();
+		}
+
+		Set<String> unknownTopLevelTypeFqns = topLevelTypeFqns.stream()
+				.filter(topLevelTypeFqn -> !this.topLevelTypeMethods.containsKey(topLevelTypeFqn))
+				.collect(Collectors.toSet());
+		if (!unknownTopLevelTypeFqns.isEmpty()) {
+			CoverageStore readMethods = CoverageStore
+					.of(this.delegate.getInstrumentedMethods(coverageFiles, unknownTopLevelTypeFqns));
+			for (String topLevelTypeFqn : unknownTopLevelTypeFqns) {
+				this.topLevelTypeMethods.put(topLevelTypeFqn,
+						readMethods.getTopLevelTypes(Collections.singleton(topLevelTypeFqn)));
+			}
+		}
+
+		return topLevelTypeFqns.stream()
+				.flatMap(topLevelTypeFqn -> this.topLevelTypeMethods.get(topLevelTypeFqn).stream())
+				.collect(Collectors.toSet());
+	}
+}
@@ -15,6 +15,7 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import com.scheible.testgapanalysis.common.JavaMethodUtils;
+import com.scheible.testgapanalysis.common.ParallelUtils;
 import com.scheible.testgapanalysis.jacoco.InstrumentedMethod;
 import com.scheible.testgapanalysis.parser.ParsedMethod;
 
@@ -24,17 +25,18 @@ import com.scheible.testgapanalysis.parser.ParsedMethod;
  */
 public class CoverageResolver {
 
-	private final Map<TopLevelType, Set<InstrumentedMethod>> instrumentedMethods;
+	private final Map<TopLevelType, TypeCoverageIndex> coverageIndices;
 
-	CoverageResolver(Map<TopLevelType, Set<InstrumentedMethod>> instrumentedMethods) {
-		this.instrumentedMethods = instrumentedMethods;
+	CoverageResolver(Map<TopLevelType, TypeCoverageIndex> coverageIndices) {
+		this.coverageIndices = coverageIndices;
 	}
 
 	/**
-	 * A coverage resolver is created with fitting coverage report.
+	 * A coverage resolver is created with fitting coverage report. The coverage is indexed per type once, the
+	 * resolution of the individual methods are lookups in that index afterwards.
 	 */
 	public static CoverageResolver with(Set<InstrumentedMethod> instrumentedMethods) {
-		return new CoverageResolver(groupCoverageByType(instrumentedMethods));
+		return new CoverageResolver(indexCoverageByType(instrumentedMethods));
 	}
 
 	/**
@@ -43,21 +45,26 @@ public class CoverageResolver {
 	 * cases like initializers.
 	 */
 	public CoverageResult resolve(Set<ParsedMethod> parsedMethods) {
-		CoverageResult result = CoverageResult.ofEmptyMethods(parsedMethods);
+		return resolve(parsedMethods, 1);
+	}
 
-		for (Entry<TopLevelType, Set<ParsedMethod>> typeMethodsEntry : groupMethodsByType(
-				parsedMethods.stream().filter(m -> !m.isEmpty()).collect(Collectors.toSet())).entrySet()) {
-			result.add(resolveType(typeMethodsEntry.getKey(), typeMethodsEntry.getValue()));
-		}
+	/**
+	 * Same as {@code resolve(Set)} but resolves up to {@code parallelism} top level types concurrently. Types are
+	 * resolved independently of each other, their results are merged afterwards.
+	 */
+	public CoverageResult resolve(Set<ParsedMethod> parsedMethods, int parallelism) {
+		List<CoverageResult> typeResults = ParallelUtils.map(
+				groupMethodsByType(parsedMethods.stream().filter(m -> !m.isEmpty()).collect(Collectors.toSet()))
+						.entrySet(),
+				typeMethodsEntry -> resolveType(typeMethodsEntry.getKey(), typeMethodsEntry.getValue()), parallelism);
 
-		return result;
+		return typeResults.stream().reduce(CoverageResult.ofEmptyMethods(parsedMethods), CoverageResult::merge);
 	}
 
 	CoverageResult resolveType(TopLevelType type, Set<ParsedMethod> parsedMethods) {
 		CoverageResult result = new CoverageResult();
 
-		Set<InstrumentedMethod> instrumentedMethods = this.instrumentedMethods.getOrDefault(type,
-				Collections.emptySet());
+		TypeCoverageIndex instrumentedMethods = this.coverageIndices.getOrDefault(type, TypeCoverageIndex.empty());
 
 		result.add(resolveInitializers(filter(parsedMethods, ParsedMethod::isInitializer), instrumentedMethods));
 		result.add(resolveStaticInitializers(filter(parsedMethods, ParsedMethod::isStaticInitializer),
@@ -76,9 +83,8 @@ public class CoverageResolver {
 	 * have to be resolved to a constructor (to a code covered one in best case).
 	 */
 	private CoverageResult resolveInitializers(Set<ParsedMethod> parsedInitializers,
-			Set<InstrumentedMethod> instrumentedMethods) {
-		List<InstrumentedMethod> coverageConstructors = instrumentedMethods.stream()
-				.filter(InstrumentedMethod::isConstructor).collect(Collectors.toList());
+			TypeCoverageIndex instrumentedMethods) {
+		List<InstrumentedMethod> coverageConstructors = instrumentedMethods.getConstructors();
 
 		if (parsedInitializers.size() == 1 && coverageConstructors.size() == 1) {
 			Map<ParsedMethod, InstrumentedMethod> resolvedInitializers = new HashMap<>();
@@ -105,9 +111,8 @@ public class CoverageResolver {
 	 * all static initializers are resolved to that single static initializer special method.
 	 */
 	private CoverageResult resolveStaticInitializers(Set<ParsedMethod> parsedStaticInitializers,
-			Set<InstrumentedMethod> instrumentedMethods) {
-		List<InstrumentedMethod> coverageStaticInitializers = instrumentedMethods.stream()
-				.filter(InstrumentedMethod::isStaticInitializer).collect(Collectors.toList());
+			TypeCoverageIndex instrumentedMethods) {
+		List<InstrumentedMethod> coverageStaticInitializers = instrumentedMethods.getStaticInitializers();
 
 		if (!coverageStaticInitializers.isEmpty()) { // make sure that a coverage report is there
 			Map<ParsedMethod, InstrumentedMethod> resolvedStaticInitializers = parsedStaticInitializers.stream()
@@ -127,7 +132,7 @@ public class CoverageResolver {
 	 * cases.
 	 */
 	private CoverageResult resolveConstructor(Set<ParsedMethod> parsedConstructors,
-			Set<InstrumentedMethod> instrumentedMethods) {
+			TypeCoverageIndex instrumentedMethods) {
 		Map<ParsedMethod, InstrumentedMethod> resolved = new HashMap<>();
 		Set<ParsedMethod> unresolved = new HashSet<>();
 
@@ -147,12 +152,8 @@ public class CoverageResolver {
 								"Inner class constructor " + parsedConstructor + " has no outer declaring type!")));
 			}
 
-			List<InstrumentedMethod> instrumentedConstructors = instrumentedMethods.stream()
-					.filter(InstrumentedMethod::isConstructor)
-					.filter(mwci -> mwci.getEnclosingSimpleName().equals(parsedConstructor.getEnclosingSimpleName()))
-					.filter(mwci -> normalizedConstructorParameters.equals(JavaMethodUtils.normalizeMethodParameters(
-							JavaMethodUtils.convertParameterDescriptor(mwci.getDescription()), Collections.emptyMap())))
-					.collect(Collectors.toList());
+			List<InstrumentedMethod> instrumentedConstructors = instrumentedMethods
+					.findConstructors(parsedConstructor.getEnclosingSimpleName(), normalizedConstructorParameters);
 			if (instrumentedConstructors.size() == 1) {
 				resolved.put(parsedConstructor, instrumentedConstructors.get(0));
 			} else {
@@ -168,18 +169,16 @@ public class CoverageResolver {
 	 * and parameter count are used to resolve.
 	 */
 	private CoverageResult resolveNonLambdaMethods(Set<ParsedMethod> parsedMethods,
-			Set<InstrumentedMethod> instrumentedMethods) {
+			TypeCoverageIndex instrumentedMethods) {
 		Map<ParsedMethod, InstrumentedMethod> resolved = new HashMap<>();
 		Set<ParsedMethod> unresolved = new HashSet<>();
 
 		List<InstrumentedMethod> candidates = new ArrayList<>();
 		for (ParsedMethod parsedMethod : parsedMethods) {
-			for (InstrumentedMethod coverageMethod : instrumentedMethods.stream()
-					.filter(InstrumentedMethod::isNonLambdaMethod).collect(Collectors.toSet())) {
-				if (parsedMethod.containsLine(coverageMethod.getLine())
-						&& parsedMethod.getName().equals(coverageMethod.getName())
-						&& parsedMethod.getParameterCount() == JavaMethodUtils
-								.convertParameterDescriptor(coverageMethod.getDescription()).size()) {
+			for (InstrumentedMethod coverageMethod : instrumentedMethods.findNonLambdaMethods(parsedMethod.getName(),
+					parsedMethod.getParameterCount(), parsedMethod.getFirstCodeLine(),
+					parsedMethod.getLastCodeLine())) {
+				if (parsedMethod.containsLine(coverageMethod.getLine())) {
 					candidates.add(coverageMethod);
 				}
 			}
@@ -201,7 +200,7 @@ public class CoverageResolver {
 	 * be made). But line numbers can be used and the lambda identifiers (e.g. lambda$1) allows column sorting.
 	 */
 	private CoverageResult resolveLambdaMethods(Set<ParsedMethod> parsedLambdas,
-			Set<InstrumentedMethod> instrumentedMethods) {
+			TypeCoverageIndex instrumentedMethods) {
 		CoverageResult result = new CoverageResult();
 
 		// mappings based on line number overlap
@@ -209,8 +208,8 @@ public class CoverageResolver {
 		Map<InstrumentedMethod, Set<ParsedMethod>> inverseMapping = new HashMap<>();
 
 		for (ParsedMethod parsedLambda : parsedLambdas) {
-			for (InstrumentedMethod lambdaCoverage : instrumentedMethods.stream()
-					.filter(InstrumentedMethod::isLambdaMethod).collect(Collectors.toSet())) {
+			for (InstrumentedMethod lambdaCoverage : instrumentedMethods
+					.findLambdaMethods(parsedLambda.getFirstCodeLine(), parsedLambda.getLastCodeLine())) {
 				if (parsedLambda.containsLine(lambdaCoverage.getLine())) {
 					mapping.computeIfAbsent(parsedLambda, key -> new HashSet<>()).add(lambdaCoverage);
 					inverseMapping.computeIfAbsent(lambdaCoverage, key -> new HashSet<>()).add(parsedLambda);
@@ -267,14 +266,14 @@ public class CoverageResolver {
 		return new CoverageResult(Collections.emptyMap(), new HashSet<>(lambdas));
 	}
 
-	private static Map<TopLevelType, Set<ParsedMethod>> groupMethodsByType(Set<ParsedMethod> methods) {
+	static Map<TopLevelType, Set<ParsedMethod>> groupMethodsByType(Set<ParsedMethod> methods) {
 		return methods.stream().collect(
 				Collectors.groupingBy(TopLevelType::of, Collectors.mapping(Function.identity(), Collectors.toSet())));
 	}
 
-	private static Map<TopLevelType, Set<InstrumentedMethod>> groupCoverageByType(Set<InstrumentedMethod> methods) {
-		return methods.stream().collect(
-				Collectors.groupingBy(TopLevelType::of, Collectors.mapping(Function.identity(), Collectors.toSet())));
+	static Map<TopLevelType, TypeCoverageIndex> indexCoverageByType(Set<InstrumentedMethod> methods) {
+		return methods.stream().collect(Collectors.groupingBy(TopLevelType::of,
+				Collectors.collectingAndThen(Collectors.toList(), TypeCoverageIndex::of)));
 	}
 
 	private static Set<ParsedMethod> filter(Set<ParsedMethod> methods, Predicate<ParsedMethod> predicate) {
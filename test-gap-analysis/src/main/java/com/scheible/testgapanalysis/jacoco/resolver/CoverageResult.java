@@ -1,5 +1,6 @@
 package com.scheible.testgapanalysis.jacoco.resolver;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -56,6 +57,39 @@ public class CoverageResult {
 		add(result.resolvedMethods, result.unresolvedMethods);
 	}
 
+	/**
+	 * Merges two results into a new one without modifying any of them. In contrast to {@code add(CoverageResult)}
+	 * all parts of both results are kept and methods resolved to already ambiguous coverage become ambiguous as
+	 * well. That makes the merge associative and the results of independently resolved types can be combined in
+	 * any grouping.
+	 */
+	static CoverageResult merge(CoverageResult first, CoverageResult second) {
+		CoverageResult result = new CoverageResult();
+		Map<ParsedMethod, InstrumentedMethod> resolved = new HashMap<>();
+		Set<ParsedMethod> unresolved = new HashSet<>();
+
+		for (CoverageResult current : Arrays.asList(first, second)) {
+			result.emptyMethods.addAll(current.emptyMethods);
+			current.ambiguousCoverage.forEach((coverage, methods) -> result.ambiguousCoverage
+					.computeIfAbsent(coverage, key -> new HashSet<>()).addAll(methods));
+			resolved.putAll(current.resolvedMethods);
+			unresolved.addAll(current.unresolvedMethods);
+		}
+
+		for (Entry<ParsedMethod, InstrumentedMethod> resolvedMethod : new HashSet<>(resolved.entrySet())) {
+			Set<ParsedMethod> ambiguousMethods = result.ambiguousCoverage.get(resolvedMethod.getValue());
+			if (ambiguousMethods != null
+					&& !(resolvedMethod.getKey().isInitializer() || resolvedMethod.getKey().isStaticInitializer())) {
+				ambiguousMethods.add(resolvedMethod.getKey());
+				resolved.remove(resolvedMethod.getKey());
+				unresolved.add(resolvedMethod.getKey());
+			}
+		}
+
+		result.add(resolved, unresolved);
+		return result;
+	}
+
 	/**
 	 * Creates a map of all methods that are ambiguously resolved (excluding (static) initializers). The reason
 	 * that (static) initalizers are ignored is their special handling. See {@code CoverageResolver} for details.
@@ -0,0 +1,110 @@
+package com.scheible.testgapanalysis.jacoco.resolver;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.scheible.testgapanalysis.common.ParallelUtils;
+import com.scheible.testgapanalysis.jacoco.InstrumentedMethod;
+import com.scheible.testgapanalysis.parser.ParsedMethod;
+
+/**
+ * Coverage resolver that keeps the coverage, the parsed methods and the resolution result of every top level
+ * type. Coverage and parsed methods can be replaced per top level type (for example after rerunning a single
+ * test class or after editing a single file), only the parsed methods of the affected types are resolved
+ * again. The result of every update is a delta that replaces everything that was previously resolved for the
+ * affected types.
+ * <p>
+ * Types are resolved independently of each other, that way the merged result of all updates is always the
+ * same as a {@link CoverageResolver} created with the current coverage would resolve for the current parsed
+ * methods.
+ *
+ * @author sj
+ */
+public class IncrementalCoverageResolver {
+
+	private final int parallelism;
+
+	private final Map<TopLevelType, TypeCoverageIndex> coverageIndices = new HashMap<>();
+	private final Map<TopLevelType, Set<ParsedMethod>> parsedMethods = new HashMap<>();
+	private final Map<TopLevelType, CoverageResult> typeResults = new HashMap<>();
+
+	private final CoverageResolver coverageResolver = new CoverageResolver(this.coverageIndices);
+
+	public IncrementalCoverageResolver(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	public IncrementalCoverageResolver() {
+		this(1);
+	}
+
+	/**
+	 * Replaces the coverage of the given top level types (fully qualified names like {@code 'org.example.Foo'})
+	 * and of all types of the passed instrumented methods. A type without instrumented methods has no coverage
+	 * afterwards.
+	 */
+	public synchronized CoverageResult updateCoverage(Set<String> topLevelTypeFqns,
+			Set<InstrumentedMethod> instrumentedMethods) {
+		Map<TopLevelType, TypeCoverageIndex> updatedIndices = CoverageResolver.indexCoverageByType(instrumentedMethods);
+		Set<TopLevelType> updatedTypes = toTopLevelTypes(topLevelTypeFqns);
+		updatedTypes.addAll(updatedIndices.keySet());
+
+		updatedTypes.forEach(this.coverageIndices::remove);
+		this.coverageIndices.putAll(updatedIndices);
+
+		return resolve(updatedTypes);
+	}
+
+	/**
+	 * Replaces the parsed methods of the given top level types and of all types of the passed parsed methods. A
+	 * type without parsed methods is not part of the result anymore.
+	 */
+	public synchronized CoverageResult updateMethods(Set<String> topLevelTypeFqns, Set<ParsedMethod> methods) {
+		Map<TopLevelType, Set<ParsedMethod>> updatedMethods = CoverageResolver.groupMethodsByType(methods);
+		Set<TopLevelType> updatedTypes = toTopLevelTypes(topLevelTypeFqns);
+		updatedTypes.addAll(updatedMethods.keySet());
+
+		updatedTypes.forEach(this.parsedMethods::remove);
+		this.parsedMethods.putAll(updatedMethods);
+
+		return resolve(updatedTypes);
+	}
+
+	/**
+	 * The merged result of all top level types.
+	 */
+	public synchronized CoverageResult getResult() {
+		return this.typeResults.values().stream().reduce(new CoverageResult(), CoverageResult::merge);
+	}
+
+	private CoverageResult resolve(Set<TopLevelType> types) {
+		List<TopLevelType> typesWithMethods = types.stream().filter(this.parsedMethods::containsKey)
+				.collect(Collectors.toList());
+		List<CoverageResult> results = ParallelUtils.map(typesWithMethods, this::resolveType, this.parallelism);
+
+		types.forEach(this.typeResults::remove);
+		for (int i = 0; i < typesWithMethods.size(); i++) {
+			this.typeResults.put(typesWithMethods.get(i), results.get(i));
+		}
+
+		return results.stream().reduce(new CoverageResult(), CoverageResult::merge);
+	}
+
+	private CoverageResult resolveType(TopLevelType type) {
+		Set<ParsedMethod> methods = this.parsedMethods.getOrDefault(type, Collections.emptySet());
+		Set<ParsedMethod> nonEmptyMethods = methods.stream().filter(method -> !method.isEmpty())
+				.collect(Collectors.toSet());
+
+		return CoverageResult.merge(CoverageResult.ofEmptyMethods(methods),
+				this.coverageResolver.resolveType(type, nonEmptyMethods));
+	}
+
+	private static Set<TopLevelType> toTopLevelTypes(Set<String> topLevelTypeFqns) {
+		return topLevelTypeFqns.stream().map(TopLevelType::of).collect(Collectors.toCollection(HashSet::new));
+	}
+}
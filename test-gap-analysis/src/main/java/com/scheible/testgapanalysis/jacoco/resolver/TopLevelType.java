@@ -20,6 +20,10 @@ class TopLevelType {
 		this.fullQualifiedName = fullQualifiedName;
 	}
 
+	static TopLevelType of(String fullQualifiedName) {
+		return new TopLevelType(fullQualifiedName);
+	}
+
 	static TopLevelType of(ParsedMethod method) {
 		return new TopLevelType(method.getTopLevelTypeFqn());
 	}
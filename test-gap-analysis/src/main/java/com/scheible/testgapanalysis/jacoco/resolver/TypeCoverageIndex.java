@@ -0,0 +1,106 @@
+package com.scheible.testgapanalysis.jacoco.resolver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import com.scheible.testgapanalysis.common.JavaMethodUtils;
+import com.scheible.testgapanalysis.jacoco.InstrumentedMethod;
+
+/**
+ * Index of the instrumented methods of a single top level type. The methods are bucketed by their kind and
+ * non-lambda methods additionally by name and parameter count. Within a bucket the methods are sorted by line
+ * in order to find all methods of a line range with a logarithmic lookup instead of scanning all methods of
+ * the type for every parsed method.
+ *
+ * @author sj
+ */
+class TypeCoverageIndex {
+
+	private static final TypeCoverageIndex EMPTY = new TypeCoverageIndex(Collections.emptySet());
+
+	private final List<InstrumentedMethod> constructors = new ArrayList<>();
+	private final Map<String, Map<List<String>, List<InstrumentedMethod>>> constructorsByName = new HashMap<>();
+	private final List<InstrumentedMethod> staticInitializers = new ArrayList<>();
+	private final Map<String, NavigableMap<Integer, List<InstrumentedMethod>>> nonLambdaMethods = new HashMap<>();
+	private final NavigableMap<Integer, List<InstrumentedMethod>> lambdaMethods = new TreeMap<>();
+
+	private TypeCoverageIndex(Collection<InstrumentedMethod> instrumentedMethods) {
+		for (InstrumentedMethod method : instrumentedMethods) {
+			if (method.isConstructor()) {
+				this.constructors.add(method);
+				this.constructorsByName.computeIfAbsent(method.getEnclosingSimpleName(), key -> new HashMap<>())
+						.computeIfAbsent(normalizeParameters(method), key -> new ArrayList<>()).add(method);
+			} else if (method.isStaticInitializer()) {
+				this.staticInitializers.add(method);
+			} else if (method.isLambdaMethod()) {
+				this.lambdaMethods.computeIfAbsent(method.getLine(), key -> new ArrayList<>()).add(method);
+			} else {
+				String nameAndArity = toNameAndArity(method.getName(),
+						JavaMethodUtils.convertParameterDescriptor(method.getDescription()).size());
+				this.nonLambdaMethods.computeIfAbsent(nameAndArity, key -> new TreeMap<>())
+						.computeIfAbsent(method.getLine(), key -> new ArrayList<>()).add(method);
+			}
+		}
+	}
+
+	static TypeCoverageIndex of(Collection<InstrumentedMethod> instrumentedMethods) {
+		return new TypeCoverageIndex(instrumentedMethods);
+	}
+
+	static TypeCoverageIndex empty() {
+		return EMPTY;
+	}
+
+	List<InstrumentedMethod> getConstructors() {
+		return Collections.unmodifiableList(this.constructors);
+	}
+
+	/**
+	 * Constructors of the (nested) type with the given simple name and exactly the given normalized parameters.
+	 */
+	List<InstrumentedMethod> findConstructors(String enclosingSimpleName, List<String> normalizedParameters) {
+		return Collections
+				.unmodifiableList(this.constructorsByName.getOrDefault(enclosingSimpleName, Collections.emptyMap())
+						.getOrDefault(normalizedParameters, Collections.emptyList()));
+	}
+
+	List<InstrumentedMethod> getStaticInitializers() {
+		return Collections.unmodifiableList(this.staticInitializers);
+	}
+
+	/**
+	 * Non-lambda methods with the given name and parameter count whose line is within the closed interval.
+	 */
+	List<InstrumentedMethod> findNonLambdaMethods(String name, int parameterCount, int fromLine, int toLine) {
+		NavigableMap<Integer, List<InstrumentedMethod>> byLine = this.nonLambdaMethods
+				.get(toNameAndArity(name, parameterCount));
+		return byLine != null ? flatten(byLine.subMap(fromLine, true, toLine, true)) : Collections.emptyList();
+	}
+
+	/**
+	 * Lambda methods whose line is within the closed interval.
+	 */
+	List<InstrumentedMethod> findLambdaMethods(int fromLine, int toLine) {
+		return flatten(this.lambdaMethods.subMap(fromLine, true, toLine, true));
+	}
+
+	private static List<InstrumentedMethod> flatten(NavigableMap<Integer, List<InstrumentedMethod>> byLine) {
+		return byLine.values().stream().flatMap(List::stream).collect(Collectors.toList());
+	}
+
+	private static List<String> normalizeParameters(InstrumentedMethod method) {
+		return JavaMethodUtils.normalizeMethodParameters(
+				JavaMethodUtils.convertParameterDescriptor(method.getDescription()), Collections.emptyMap());
+	}
+
+	private static String toNameAndArity(String name, int parameterCount) {
+		return name + "/" + parameterCount;
+	}
+}
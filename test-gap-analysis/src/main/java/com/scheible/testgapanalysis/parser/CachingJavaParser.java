@@ -0,0 +1,197 @@
+package com.scheible.testgapanalysis.parser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Java parser that caches the parsed methods of every source code on disk. The cache key is the SHA-1 of the
+ * content in Git blob notation, for a committed file it is therefore the same as its Git blob id. A cache hit
+ * skips parsing entirely. The size of the cache directory is bounded, when it grows larger the least recently
+ * used entries are evicted. Sources that can't be parsed are never cached.
+ *
+ * @author sj
+ */
+public class CachingJavaParser extends JavaParser {
+
+	public static final long DEFAULT_MAX_CACHE_SIZE = 256L * 1024 * 1024;
+
+	private static final String CACHE_FILE_EXTENSION = ".methods";
+
+	private final Path cacheDir;
+	private final long maxCacheSize;
+	private final AtomicLong cacheSize;
+
+	public CachingJavaParser(File cacheDir, long maxCacheSize) {
+		this.cacheDir = cacheDir.toPath();
+		this.maxCacheSize = maxCacheSize;
+
+		try {
+			Files.createDirectories(this.cacheDir);
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Can't create the parsed method cache directory.", ex);
+		}
+
+		this.cacheSize = new AtomicLong(getCacheFiles().stream().mapToLong(CachingJavaParser::getSize).sum());
+	}
+
+	public CachingJavaParser(File cacheDir) {
+		this(cacheDir, DEFAULT_MAX_CACHE_SIZE);
+	}
+
+	@Override
+	public Set<ParsedMethod> getMethods(String code, String path) {
+		Path cacheFile = this.cacheDir.resolve(hash(code) + CACHE_FILE_EXTENSION);
+
+		Optional<Set<ParsedMethod>> cachedMethods = read(cacheFile);
+		if (cachedMethods.isPresent()) {
+			return cachedMethods.get();
+		}
+
+		Optional<Set<ParsedMethod>> methods = parseMethods(code, path);
+		methods.ifPresent(parsedMethods -> write(cacheFile, parsedMethods));
+		return methods.orElse(Collections.emptySet());
+	}
+
+	private Optional<Set<ParsedMethod>> read(Path cacheFile) {
+		if (!Files.exists(cacheFile)) {
+			return Optional.empty();
+		}
+
+		try (InputStream input = Files.newInputStream(cacheFile)) {
+			Optional<Set<ParsedMethod>> methods = SerializationUtils
+					.read(new DataInputStream(new BufferedInputStream(input)));
+			// the modification time is used as the last access time for the LRU eviction
+			Files.setLastModifiedTime(cacheFile, FileTime.fromMillis(System.currentTimeMillis()));
+			return methods;
+		} catch (IOException | RuntimeException ex) {
+			this.logger.debug("Can't read parsed method cache file '{}'.", cacheFile, ex);
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * The methods are written to a temporary file first and then moved. That way concurrent readers never see a
+	 * partially written cache file.
+	 */
+	private void write(Path cacheFile, Set<ParsedMethod> methods) {
+		Path tempFile = null;
+
+		try {
+			tempFile = Files.createTempFile(this.cacheDir, cacheFile.getFileName().toString(), ".tmp");
+			try (OutputStream output = Files.newOutputStream(tempFile);
+					DataOutputStream dataOutput = new DataOutputStream(new BufferedOutputStream(output))) {
+				SerializationUtils.write(dataOutput, methods);
+			}
+
+			long size = Files.size(tempFile);
+			Files.move(tempFile, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+			if (this.cacheSize.addAndGet(size) > this.maxCacheSize) {
+				evict();
+			}
+		} catch (IOException | UncheckedIOException ex) {
+			this.logger.warn("Can't write parsed method cache file '{}'.", cacheFile, ex);
+			deleteIfExists(tempFile);
+		}
+	}
+
+	/**
+	 * Deletes the least recently used cache files until the cache is shrunk to three quarters of its maximum
+	 * size.
+	 */
+	private synchronized void evict() {
+		List<Path> cacheFiles = getCacheFiles().stream()
+				.sorted(Comparator.comparing(CachingJavaParser::getLastModifiedTime)).collect(Collectors.toList());
+		long size = cacheFiles.stream().mapToLong(CachingJavaParser::getSize).sum();
+
+		for (Path cacheFile : cacheFiles) {
+			if (size <= this.maxCacheSize / 4 * 3) {
+				break;
+			}
+
+			size -= getSize(cacheFile);
+			deleteIfExists(cacheFile);
+		}
+
+		this.cacheSize.set(size);
+	}
+
+	private List<Path> getCacheFiles() {
+		try (Stream<Path> files = Files.list(this.cacheDir)) {
+			return files.filter(file -> file.getFileName().toString().endsWith(CACHE_FILE_EXTENSION))
+					.collect(Collectors.toList());
+		} catch (IOException ex) {
+			throw new UncheckedIOException("Can't list the parsed method cache directory.", ex);
+		}
+	}
+
+	private void deleteIfExists(Path file) {
+		if (file != null) {
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException ex) {
+				this.logger.debug("Can't delete parsed method cache file '{}'.", file, ex);
+			}
+		}
+	}
+
+	private static long getSize(Path file) {
+		try {
+			return Files.size(file);
+		} catch (IOException ex) {
+			return 0L; // deleted concurrently
+		}
+	}
+
+	private static FileTime getLastModifiedTime(Path file) {
+		try {
+			return Files.getLastModifiedTime(file);
+		} catch (IOException ex) {
+			return FileTime.fromMillis(0L); // deleted concurrently
+		}
+	}
+
+	/**
+	 * SHA-1 of {@code 'blob <length>\0<content>'}, the same way Git computes its blob ids.
+	 */
+	static String hash(String code) {
+		byte[] content = code.getBytes(StandardCharsets.UTF_8);
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			digest.update(("blob " + content.length + "\0").getBytes(StandardCharsets.US_ASCII));
+			byte[] hash = digest.digest(content);
+
+			StringBuilder result = new StringBuilder(hash.length * 2);
+			for (byte current : hash) {
+				result.append(Character.forDigit((current >> 4) & 0xf, 16))
+						.append(Character.forDigit(current & 0xf, 16));
+			}
+			return result.toString();
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("SHA-1 is not supported by this JVM.", ex);
+		}
+	}
+}
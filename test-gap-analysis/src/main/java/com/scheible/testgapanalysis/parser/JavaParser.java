@@ -1,7 +1,12 @@
 package com.scheible.testgapanalysis.parser;
 
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -12,7 +17,10 @@ import com.github.javaparser.ParseResult;
 import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ParserConfiguration.LanguageLevel;
 import com.github.javaparser.Problem;
+import com.github.javaparser.Range;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.comments.CommentsCollection;
 
 /**
  *
@@ -25,23 +33,88 @@ public class JavaParser {
 
 	protected final Logger logger = LoggerFactory.getLogger(getClass());
 
+	/**
+	 * The JavaParser instances are not thread-safe but can be reused for any number of parse calls. Every thread
+	 * therefore gets its own instance that is created on first use.
+	 */
+	private final ThreadLocal<com.github.javaparser.JavaParser> javaParsers = ThreadLocal
+			.withInitial(JavaParser::createJavaParser);
+
 	public Set<ParsedMethod> getMethods(String code, String path) {
-		ParserConfiguration configuration = new ParserConfiguration();
-		configuration.setLanguageLevel(LanguageLevel.BLEEDING_EDGE);
-		com.github.javaparser.JavaParser javaParser = new com.github.javaparser.JavaParser(configuration);
+		return parseMethods(code, path).orElse(Collections.emptySet());
+	}
+
+	/**
+	 * Same as {@link #getMethods(String, String)} but only builds the methods whose code lines or the declaration
+	 * lines of any enclosing type, method or package overlap the filter. All other methods are skipped without
+	 * masking their code. The result is never cached.
+	 */
+	public Set<ParsedMethod> getMethods(String code, String path, LineRangeFilter filter) {
+		return parseMethods(code, path, filter).orElse(Collections.emptySet());
+	}
+
+	/**
+	 * Cheap check without parsing whether both codes have the same methods (ignoring their positions), that is
+	 * the codes only differ in comments, whitespace within lines, empty lines and (valid) imports. A
+	 * {@code false} result doesn't mean that any method has changed, the codes then have to be parsed to find
+	 * out.
+	 */
+	public boolean haveSameMethods(String previousCode, String currentCode) {
+		Optional<ScannedSource> previous = ScannedSource.of(previousCode);
+		Optional<ScannedSource> current = previous.isPresent() ? ScannedSource.of(currentCode) : Optional.empty();
+		if (!previous.isPresent() || !current.isPresent()
+				|| !previous.get().getCode().equals(current.get().getCode())) {
+			return false;
+		}
+
+		// an import that is only in one of the codes must not break its parsing
+		Set<String> changedImports = new HashSet<>(previous.get().getImports());
+		changedImports.addAll(current.get().getImports());
+		Set<String> unchangedImports = new HashSet<>(previous.get().getImports());
+		unchangedImports.retainAll(current.get().getImports());
+		changedImports.removeAll(unchangedImports);
+
+		com.github.javaparser.JavaParser javaParser = this.javaParsers.get();
+		return changedImports.stream().allMatch(anImport -> javaParser.parseImport(anImport).isSuccessful());
+	}
+
+	/**
+	 * Parses the methods of the code, an empty optional is returned when the code can't be parsed.
+	 */
+	protected Optional<Set<ParsedMethod>> parseMethods(String code, String path) {
+		return parseMethods(code, path, LineRangeFilter.ALL);
+	}
 
+	private Optional<Set<ParsedMethod>> parseMethods(String code, String path, LineRangeFilter filter) {
 		// needed as long https://github.com/javaparser/javaparser/issues/2445#issuecomment-964188096 is not fixed
-		code = INSTANCEOF_WITH_FINAL_WORKAROUND_PATTERN.matcher(code).replaceAll(" instanceof ");
+		if (code.contains("instanceof")) {
+			code = INSTANCEOF_WITH_FINAL_WORKAROUND_PATTERN.matcher(code).replaceAll(" instanceof ");
+		}
 
-		ParseResult<CompilationUnit> parserResult = javaParser.parse(code);
+		ParseResult<CompilationUnit> parserResult = this.javaParsers.get().parse(code);
 		if (!parserResult.isSuccessful()) {
 			this.logger.error("Parsing methods of '{}' failed cause: {}", path, parserResult.getProblems().stream()
 					.map(Problem::getVerboseMessage).collect(Collectors.joining(", ")));
-			return Collections.emptySet();
+			return Optional.empty();
 		}
 
-		MethodVisitor methodVisitor = new MethodVisitor(code);
+		MethodVisitor methodVisitor = new MethodVisitor(code, getSortedComments(parserResult), filter);
 		parserResult.getResult().get().accept(methodVisitor, null);
-		return methodVisitor.getResult();
+		return Optional.of(methodVisitor.getResult());
+	}
+
+	/**
+	 * The comments collection of the parser also contains the comments that were not attributed to any node.
+	 */
+	private static List<Range> getSortedComments(ParseResult<CompilationUnit> parserResult) {
+		return parserResult.getCommentsCollection().map(CommentsCollection::getComments).orElse(new TreeSet<>())
+				.stream().map(Comment::getRange).filter(Optional::isPresent).map(Optional::get)
+				.sorted(Comparator.comparing(range -> range.begin)).collect(Collectors.toList());
+	}
+
+	private static com.github.javaparser.JavaParser createJavaParser() {
+		ParserConfiguration configuration = new ParserConfiguration();
+		configuration.setLanguageLevel(LanguageLevel.BLEEDING_EDGE);
+		return new com.github.javaparser.JavaParser(configuration);
 	}
 }
@@ -0,0 +1,103 @@
+package com.scheible.testgapanalysis.parser;
+
+import java.util.Arrays;
+
+/**
+ * Offsets of all lines of a source code that is computed once per compilation unit. Lines are split the same
+ * way {@code java.util.Scanner#nextLine()} does: at {@code \r\n}, {@code \n}, {@code \r}, {@code \u2028},
+ * {@code \u2029} and {@code \u0085}. A line separator at the very end doesn't start another (empty) line.
+ *
+ * @author sj
+ */
+class LineIndex {
+
+	private final String code;
+	private final int[] lineStarts;
+	private final int[] lineEnds;
+	private final int lineCount;
+
+	private LineIndex(String code) {
+		this.code = code;
+
+		int[] starts = new int[16];
+		int[] ends = new int[16];
+		int count = 0;
+
+		int lineStart = 0;
+		int i = 0;
+		while (i < code.length()) {
+			int separatorLength = getSeparatorLength(code, i);
+
+			if (separatorLength > 0) {
+				if (count == starts.length) {
+					starts = Arrays.copyOf(starts, count * 2);
+					ends = Arrays.copyOf(ends, count * 2);
+				}
+
+				starts[count] = lineStart;
+				ends[count++] = i;
+				i += separatorLength;
+				lineStart = i;
+			} else {
+				i++;
+			}
+		}
+
+		if (lineStart < code.length()) {
+			starts = Arrays.copyOf(starts, count + 1);
+			ends = Arrays.copyOf(ends, count + 1);
+			starts[count] = lineStart;
+			ends[count++] = code.length();
+		}
+
+		this.lineStarts = starts;
+		this.lineEnds = ends;
+		this.lineCount = count;
+	}
+
+	static LineIndex of(String code) {
+		return new LineIndex(code);
+	}
+
+	private static int getSeparatorLength(String code, int index) {
+		char current = code.charAt(index);
+
+		if (current == '\r') {
+			return index + 1 < code.length() && code.charAt(index + 1) == '\n' ? 2 : 1;
+		} else if (current == '\n' || current == '\u2028' || current == '\u2029' || current == '\u0085') {
+			return 1;
+		} else {
+			return 0;
+		}
+	}
+
+	String getCode() {
+		return this.code;
+	}
+
+	int getLineCount() {
+		return this.lineCount;
+	}
+
+	/**
+	 * Offset of the first character of the (one based) line.
+	 */
+	int getLineStart(int line) {
+		return this.lineStarts[line - 1];
+	}
+
+	/**
+	 * Offset after the last character of the (one based) line, the line separator is not part of the line.
+	 */
+	int getLineEnd(int line) {
+		return this.lineEnds[line - 1];
+	}
+
+	/**
+	 * The (one based) line that contains the offset, an offset of a line separator belongs to the line it ends.
+	 */
+	int getLine(int offset) {
+		int index = Arrays.binarySearch(this.lineStarts, 0, this.lineCount, offset);
+		return index >= 0 ? index + 1 : -index - 1;
+	}
+}
@@ -0,0 +1,14 @@
+package com.scheible.testgapanalysis.parser;
+
+/**
+ * Selects the methods that are built by the parser by their (1-based and inclusive) line ranges.
+ *
+ * @author sj
+ */
+@FunctionalInterface
+public interface LineRangeFilter {
+
+	LineRangeFilter ALL = (firstLine, lastLine) -> true;
+
+	boolean overlaps(int firstLine, int lastLine);
+}
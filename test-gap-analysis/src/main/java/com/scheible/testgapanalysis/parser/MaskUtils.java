@@ -1,6 +1,9 @@
 package com.scheible.testgapanalysis.parser;
 
-import java.util.Scanner;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 
 import com.github.javaparser.Position;
 import com.github.javaparser.Range;
@@ -22,44 +25,121 @@ public abstract class MaskUtils {
 	}
 
 	static String apply(String code, Range range, Iterable<Range> masks, boolean debug) {
+		return apply(LineIndex.of(code), range, masks, debug);
+	}
+
+	/**
+	 * Positions are compared as a single {@code long} of the line in the upper and the column in the lower 32
+	 * bit. The masks are sorted and merged to non-overlapping intervals first, then all lines of the range are
+	 * masked in a single pass.
+	 */
+	static String apply(LineIndex lineIndex, Range range, Iterable<Range> masks, boolean debug) {
 		StringBuilder result = new StringBuilder();
+		StringBuilder line = new StringBuilder();
 
-		try (Scanner scanner = new Scanner(code)) {
-			int i = 1;
-			while (scanner.hasNextLine()) {
-				StringBuilder line = new StringBuilder(scanner.nextLine());
+		long[] intervals = toMergedIntervals(masks);
+		long rangeBegin = toKey(range.begin);
+		long rangeEnd = toKey(range.end);
+		char maskChar = debug ? '#' : ' ';
 
-				if (i >= range.begin.line && i <= range.end.line) {
-					mask(line, i, range, debug, masks);
+		int interval = 0;
+		for (int i = Math.max(1, range.begin.line); i <= Math.min(range.end.line, lineIndex.getLineCount()); i++) {
+			int lineStart = lineIndex.getLineStart(i);
+			int lineLength = lineIndex.getLineEnd(i) - lineStart;
 
-					String maskedLine = (debug ? line.toString() : line.toString().replaceAll("\\s+", " ")).trim();
-					if (!maskedLine.isEmpty()) {
-						result.append(maskedLine).append('\n');
-					}
+			line.setLength(0);
+			for (int j = 1; j <= lineLength; j++) {
+				long key = toKey(i, j);
+				while (interval < intervals.length && intervals[interval + 1] < key) {
+					interval += 2;
 				}
 
-				i++;
+				boolean masked = key < rangeBegin || key > rangeEnd
+						|| interval < intervals.length && intervals[interval] <= key;
+				line.append(masked ? maskChar : lineIndex.getCode().charAt(lineStart + j - 1));
 			}
+
+			appendTrimmedLine(result, debug ? line : collapseWhitespace(line));
 		}
 
 		return result.toString();
 	}
 
-	private static void mask(StringBuilder line, int i, Range range, boolean debug, Iterable<Range> masks) {
-		for (int j = 1; j <= line.length(); j++) {
-			Position currentPos = new Position(i, j);
+	/**
+	 * Returns the begin and end keys of the sorted and merged masks as consecutive array elements.
+	 */
+	private static long[] toMergedIntervals(Iterable<Range> masks) {
+		List<long[]> sorted = new ArrayList<>();
+		for (Range mask : masks) {
+			if (!mask.begin.isAfter(mask.end)) {
+				sorted.add(new long[]{toKey(mask.begin), toKey(mask.end)});
+			}
+		}
+		sorted.sort(Comparator.comparingLong(interval -> interval[0]));
 
-			if (!range.contains(currentPos)) {
-				line.setCharAt(j - 1, debug ? '#' : ' ');
-				continue;
+		long[] merged = new long[sorted.size() * 2];
+		int count = 0;
+		for (long[] interval : sorted) {
+			if (count > 0 && interval[0] <= merged[count - 1]) {
+				merged[count - 1] = Math.max(merged[count - 1], interval[1]);
+			} else {
+				merged[count++] = interval[0];
+				merged[count++] = interval[1];
 			}
+		}
 
-			for (Range mask : masks) {
-				if (mask.contains(currentPos)) {
-					line.setCharAt(j - 1, debug ? '#' : ' ');
-					break;
-				}
+		return count == merged.length ? merged : Arrays.copyOf(merged, count);
+	}
+
+	/**
+	 * Same as {@code replaceAll("\\s+", " ")}.
+	 */
+	private static CharSequence collapseWhitespace(CharSequence line) {
+		StringBuilder collapsed = new StringBuilder(line.length());
+
+		for (int i = 0; i < line.length(); i++) {
+			char current = line.charAt(i);
+			if (!isWhitespace(current)) {
+				collapsed.append(current);
+			} else if (i == 0 || !isWhitespace(line.charAt(i - 1))) {
+				collapsed.append(' ');
 			}
 		}
+
+		return collapsed;
+	}
+
+	/**
+	 * Same as {@code String#trim()}, empty lines are skipped.
+	 */
+	private static void appendTrimmedLine(StringBuilder result, CharSequence line) {
+		int begin = 0;
+		int end = line.length();
+
+		while (begin < end && line.charAt(begin) <= ' ') {
+			begin++;
+		}
+		while (end > begin && line.charAt(end - 1) <= ' ') {
+			end--;
+		}
+
+		if (begin < end) {
+			result.append(line, begin, end).append('\n');
+		}
+	}
+
+	/**
+	 * The whitespace characters of the regular expression character class {@code \s}.
+	 */
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	private static long toKey(Position position) {
+		return toKey(position.line, position.column);
+	}
+
+	private static long toKey(int line, int column) {
+		return ((long) line << 32) | (column & 0xffffffffL);
 	}
 }
@@ -0,0 +1,61 @@
+package com.scheible.testgapanalysis.parser;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Java parser that keeps the parsed methods of the most recently used source codes in memory (keyed by the
+ * same content hash as {@link CachingJavaParser}). Meant for long-running processes that parse the same files
+ * over and over again, the delegate is only called on a cache miss. Sources without methods (or that can't be
+ * parsed) are never kept.
+ *
+ * @author sj
+ */
+public class MemoizingJavaParser extends JavaParser {
+
+	public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+	private final JavaParser delegate;
+	private final Map<String, Set<ParsedMethod>> methods;
+
+	public MemoizingJavaParser(JavaParser delegate, int maxEntries) {
+		this.delegate = delegate;
+		this.methods = Collections.synchronizedMap(new LinkedHashMap<String, Set<ParsedMethod>>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Entry<String, Set<ParsedMethod>> eldest) {
+				return size() > maxEntries;
+			}
+		});
+	}
+
+	public MemoizingJavaParser(JavaParser delegate) {
+		this(delegate, DEFAULT_MAX_ENTRIES);
+	}
+
+	@Override
+	public Set<ParsedMethod> getMethods(String code, String path) {
+		String hash = CachingJavaParser.hash(code);
+
+		Set<ParsedMethod> cachedMethods = this.methods.get(hash);
+		if (cachedMethods != null) {
+			return cachedMethods;
+		}
+
+		Set<ParsedMethod> parsedMethods = this.delegate.getMethods(code, path);
+		if (!parsedMethods.isEmpty()) {
+			this.methods.put(hash, parsedMethods);
+		}
+		return parsedMethods;
+	}
+
+	@Override
+	public Set<ParsedMethod> getMethods(String code, String path, LineRangeFilter filter) {
+		return this.delegate.getMethods(code, path, filter);
+	}
+}
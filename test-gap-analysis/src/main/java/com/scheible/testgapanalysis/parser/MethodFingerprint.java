@@ -0,0 +1,86 @@
+package com.scheible.testgapanalysis.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import com.scheible.testgapanalysis.parser.ParsedMethod.MethodType;
+
+/**
+ * 128 bit MD5 fingerprint of the identity of a method: Its type, top level type, scope, name, parameter types
+ * and relevant code. Source code positions are not part of it, a method that was only moved has therefore the
+ * same fingerprint. The fingerprint is computed once when the method is built, comparing two fingerprints
+ * afterwards is a comparison of two longs instead of the whole code.
+ *
+ * @author sj
+ */
+public final class MethodFingerprint {
+
+	private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("MD5");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException("MD5 is not supported by this JVM.", ex);
+		}
+	});
+
+	private final long high;
+	private final long low;
+
+	private MethodFingerprint(long high, long low) {
+		this.high = high;
+		this.low = low;
+	}
+
+	static MethodFingerprint of(MethodType methodType, String topLevelTypeFqn, List<String> scope, String name,
+			List<String> parameterTypes, String relevantCode) {
+		MessageDigest digest = DIGEST.get();
+		update(digest, methodType.name());
+		update(digest, topLevelTypeFqn);
+		update(digest, scope);
+		update(digest, name);
+		update(digest, parameterTypes);
+		update(digest, relevantCode);
+
+		ByteBuffer hash = ByteBuffer.wrap(digest.digest()); // also resets the digest
+		return new MethodFingerprint(hash.getLong(), hash.getLong());
+	}
+
+	/**
+	 * Every value is prefixed with its length, that way the concatenation of different values is unambiguous.
+	 */
+	private static void update(MessageDigest digest, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+		digest.update(bytes);
+	}
+
+	private static void update(MessageDigest digest, List<String> values) {
+		digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(values.size()).array());
+		values.forEach(value -> update(digest, value));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		} else if (obj instanceof MethodFingerprint) {
+			MethodFingerprint other = (MethodFingerprint) obj;
+			return this.high == other.high && this.low == other.low;
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(this.low);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%016x%016x", this.high, this.low);
+	}
+}
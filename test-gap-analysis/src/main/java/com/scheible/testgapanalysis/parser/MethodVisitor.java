@@ -3,12 +3,17 @@ package com.scheible.testgapanalysis.parser;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.github.javaparser.Range;
+import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.ConstructorDeclaration;
 import com.github.javaparser.ast.body.EnumDeclaration;
@@ -19,6 +24,8 @@ import com.github.javaparser.ast.comments.BlockComment;
 import com.github.javaparser.ast.comments.Comment;
 import com.github.javaparser.ast.comments.LineComment;
 import com.github.javaparser.ast.expr.LambdaExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 
 /**
@@ -27,13 +34,22 @@ import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
  */
 class MethodVisitor extends VoidVisitorAdapter<Void> {
 
-	private final String code;
+	private final LineIndex lineIndex;
+	private final List<Range> comments;
+	private final LineRangeFilter filter;
 	private final Set<ParsedMethod> result = new HashSet<>();
+	private final Map<Node, Boolean> overlappingDeclarations = new IdentityHashMap<>();
 
 	private boolean debugMode = false;
 
-	MethodVisitor(String code) {
-		this.code = code;
+	/**
+	 * The comments are all comments of the code sorted by their begin, also the ones that javaparser didn't
+	 * attribute to any node (for example a comment between the chained calls of an expression).
+	 */
+	MethodVisitor(String code, List<Range> comments, LineRangeFilter filter) {
+		this.lineIndex = LineIndex.of(code);
+		this.comments = comments;
+		this.filter = filter;
 	}
 
 	Set<ParsedMethod> getResult() {
@@ -52,9 +68,9 @@ class MethodVisitor extends VoidVisitorAdapter<Void> {
 
 	@Override
 	public void visit(ConstructorDeclaration node, Void arg) {
-		if (node.getRange().isPresent()) {
+		if (node.getRange().isPresent() && isSelected(node)) {
 			Range range = node.getRange().get();
-			String relevantCode = MaskUtils.apply(this.code, range, findMasks(node), this.debugMode);
+			String relevantCode = MaskUtils.apply(this.lineIndex, range, findMasks(node), this.debugMode);
 			List<String> parameterTypes = node.getParameters().stream().map(Parameter::getType)
 					.map(t -> t.asString() + (((Parameter) t.getParentNode().get()).isVarArgs() ? "[]" : ""))
 					.collect(Collectors.toList());
@@ -72,7 +88,7 @@ class MethodVisitor extends VoidVisitorAdapter<Void> {
 
 			this.result.add(ParsedMethod.builder().setMethodType(type)
 					.setTopLevelTypeFqn(ParserUtils.getTopLevelFqn(node)).setScope(ParserUtils.getScope(node))
-					.setName("<init>").setRelevantCode(relevantCode).setCodeLines(ParserUtils.getCodeLines(node))
+					.setName("<init>").setRelevantCode(relevantCode).setCodeLines(range.begin.line, range.end.line)
 					.setCodeColumn(range.begin.column).setEmpty(!ParserUtils.containsCode(node.getBody()))
 					.setParameterTypes(parameterTypes).setTypeParameters(ParserUtils.getTypeParameters(node))
 					.setOuterDeclaringType(ParserUtils.getOuterDeclaringType(node)).build());
@@ -83,15 +99,15 @@ class MethodVisitor extends VoidVisitorAdapter<Void> {
 
 	@Override
 	public void visit(InitializerDeclaration node, Void arg) {
-		if (node.getRange().isPresent()) {
+		if (node.getRange().isPresent() && isSelected(node)) {
 			Range range = node.getRange().get();
-			String relevantCode = MaskUtils.apply(this.code, range, findMasks(node), this.debugMode);
+			String relevantCode = MaskUtils.apply(this.lineIndex, range, findMasks(node), this.debugMode);
 
 			this.result.add(ParsedMethod.builder().setMethodType(
 					node.isStatic() ? ParsedMethod.MethodType.STATIC_INITIALIZER : ParsedMethod.MethodType.INITIALIZER)
 					.setTopLevelTypeFqn(ParserUtils.getTopLevelFqn(node)).setScope(ParserUtils.getScope(node))
 					.setName(node.isStatic() ? "<clinit>" : "<initbl>").setRelevantCode(relevantCode)
-					.setCodeLines(ParserUtils.getCodeLines(node)).setCodeColumn(range.begin.column)
+					.setCodeLines(range.begin.line, range.end.line).setCodeColumn(range.begin.column)
 					.setEmpty(!ParserUtils.containsCode(node.getBody())).setParameterCount(0).build());
 		}
 
@@ -100,16 +116,16 @@ class MethodVisitor extends VoidVisitorAdapter<Void> {
 
 	@Override
 	public void visit(MethodDeclaration node, Void arg) {
-		if (node.getRange().isPresent() && node.getBody().isPresent()) {
+		if (node.getRange().isPresent() && node.getBody().isPresent() && isSelected(node)) {
 			Range range = node.getRange().get();
-			String relevantCode = MaskUtils.apply(this.code, range, findMasks(node), this.debugMode);
+			String relevantCode = MaskUtils.apply(this.lineIndex, range, findMasks(node), this.debugMode);
 
 			this.result.add(ParsedMethod.builder()
 					.setMethodType(
 							node.isStatic() ? ParsedMethod.MethodType.STATIC_METHOD : ParsedMethod.MethodType.METHOD)
 					.setTopLevelTypeFqn(ParserUtils.getTopLevelFqn(node)).setScope(ParserUtils.getScope(node))
 					.setName(node.getNameAsString()).setRelevantCode(relevantCode)
-					.setCodeLines(ParserUtils.getCodeLines(node)).setCodeColumn(range.begin.column)
+					.setCodeLines(range.begin.line, range.end.line).setCodeColumn(range.begin.column)
 					.setEmpty(!ParserUtils.containsCode(node.getBody().get()))
 					.setParameterCount(node.getParameters().size()).build());
 		}
@@ -119,13 +135,13 @@ class MethodVisitor extends VoidVisitorAdapter<Void> {
 
 	@Override
 	public void visit(LambdaExpr node, Void arg) {
-		if (node.getRange().isPresent()) {
+		if (node.getRange().isPresent() && isSelected(node)) {
 			Range range = node.getRange().get();
-			String relevantCode = MaskUtils.apply(this.code, range, findMasks(node), this.debugMode);
+			String relevantCode = MaskUtils.apply(this.lineIndex, range, findMasks(node), this.debugMode);
 
 			this.result.add(ParsedMethod.builder().setMethodType(ParsedMethod.MethodType.LAMBDA_METHOD)
 					.setTopLevelTypeFqn(ParserUtils.getTopLevelFqn(node)).setScope(ParserUtils.getScope(node))
-					.setName("lambda").setRelevantCode(relevantCode).setCodeLines(ParserUtils.getCodeLines(node))
+					.setName("lambda").setRelevantCode(relevantCode).setCodeLines(range.begin.line, range.end.line)
 					.setCodeColumn(range.begin.column).setEmpty(!ParserUtils.containsCode(node.getBody()))
 					.setParameterCount(node.getParameters().size()).build());
 		}
@@ -133,6 +149,50 @@ class MethodVisitor extends VoidVisitorAdapter<Void> {
 		super.visit(node, arg);
 	}
 
+	/**
+	 * A method is selected if its own lines overlap the filter or the declaration lines of any enclosing type,
+	 * method or package. Everything else that makes up the identity of a method is outside of those lines.
+	 */
+	private boolean isSelected(Node node) {
+		Range range = node.getRange().get();
+		if (this.filter == LineRangeFilter.ALL || this.filter.overlaps(range.begin.line, range.end.line)) {
+			return true;
+		}
+
+		for (Optional<Node> parent = node.getParentNode(); parent.isPresent(); parent = parent.get().getParentNode()) {
+			if (this.overlappingDeclarations.computeIfAbsent(parent.get(), this::overlapsDeclarationLines)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * The declaration lines are the lines from the beginning of a declaration until its first member or body.
+	 */
+	private boolean overlapsDeclarationLines(Node node) {
+		if (node instanceof CompilationUnit) {
+			// without a package declaration a newly added or removed one could be anywhere before the first type
+			CompilationUnit compilationUnit = (CompilationUnit) node;
+			Optional<Range> packageRange = compilationUnit.getPackageDeclaration().flatMap(Node::getRange);
+			int lastPackageLine = packageRange.map(range -> range.end.line)
+					.orElseGet(() -> compilationUnit.getTypes().stream().map(Node::getRange).filter(Optional::isPresent)
+							.mapToInt(range -> range.get().begin.line).min().orElse(Integer.MAX_VALUE));
+			return this.filter.overlaps(packageRange.map(range -> range.begin.line).orElse(1), lastPackageLine);
+		} else if ((node instanceof BodyDeclaration || node instanceof ObjectCreationExpr || node instanceof LambdaExpr)
+				&& node.getRange().isPresent()) {
+			Range range = node.getRange().get();
+			int firstMemberOrBodyLine = node.getChildNodes().stream()
+					.filter(child -> child instanceof BodyDeclaration || child instanceof Statement).map(Node::getRange)
+					.filter(Optional::isPresent).mapToInt(childRange -> childRange.get().begin.line).min()
+					.orElse(range.end.line);
+			return this.filter.overlaps(range.begin.line, firstMemberOrBodyLine);
+		} else {
+			return false;
+		}
+	}
+
 	private static boolean isMethod(Node node) {
 		return node instanceof ConstructorDeclaration || node instanceof InitializerDeclaration
 				|| node instanceof MethodDeclaration || node instanceof LambdaExpr;
@@ -146,10 +206,11 @@ class MethodVisitor extends VoidVisitorAdapter<Void> {
 	 * Identifies all parts of a method (constructor, (static) initializer, (lambda) method) that shouldn't be
 	 * treated as part of its own code (could be either other nested methods or comments).
 	 */
-	private static List<Range> findMasks(Node node) {
+	private List<Range> findMasks(Node node) {
 		if (isMethod(node)) {
 			List<Range> masks = new ArrayList<>();
 			findMasks(node, masks);
+			addContainedComments(node.getRange().get(), masks);
 			return masks;
 		} else {
 			throw new IllegalArgumentException("Only methods are allowed!");
@@ -172,6 +233,23 @@ class MethodVisitor extends VoidVisitorAdapter<Void> {
 		}
 	}
 
+	private void addContainedComments(Range range, List<Range> masks) {
+		int low = 0;
+		int high = this.comments.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (this.comments.get(middle).begin.isBefore(range.begin)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+
+		for (int i = low; i < this.comments.size() && !this.comments.get(i).begin.isAfter(range.end); i++) {
+			masks.add(this.comments.get(i));
+		}
+	}
+
 	private static void addCommentRangeIfAny(Node node, Collection<Range> masks) {
 		if (node.getComment().isPresent() && node.getComment().get().getRange().isPresent()) {
 			masks.add(node.getComment().get().getRange().get());
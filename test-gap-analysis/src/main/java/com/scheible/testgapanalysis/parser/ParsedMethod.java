@@ -32,13 +32,15 @@ public class ParsedMethod {
 	private final String enclosingSimpleName;
 	private final String name;
 	private final String relevantCode;
-	private final List<Integer> codeLines;
+	private final int firstCodeLine;
+	private final int lastCodeLine;
 	private final int codeColumn;
 	private final boolean empty;
 	private final int parameterCount;
 	private final List<String> parameterTypes;
 	private final Map<String, String> typeParameters;
 	private final Optional<String> outerDeclaringType;
+	private final MethodFingerprint fingerprint;
 
 	ParsedMethod(BuilderImpl builder) {
 		this.methodType = builder.methodType;
@@ -50,8 +52,8 @@ public class ParsedMethod {
 				: builder.scope.get(builder.scope.size() - 1);
 		this.name = builder.name;
 		this.relevantCode = builder.relevantCode;
-		this.codeLines = Collections
-				.unmodifiableList(new ArrayList<>(builder.codeLines.stream().sorted().collect(Collectors.toList())));
+		this.firstCodeLine = builder.firstCodeLine;
+		this.lastCodeLine = builder.lastCodeLine;
 		this.codeColumn = builder.codeColumn;
 		this.empty = builder.empty;
 
@@ -63,6 +65,9 @@ public class ParsedMethod {
 		this.typeParameters = Collections.unmodifiableMap(
 				builder.typeParameters != null ? new HashMap<>(builder.typeParameters) : Collections.emptyMap());
 		this.outerDeclaringType = builder.outerDeclaringType;
+
+		this.fingerprint = MethodFingerprint.of(this.methodType, this.topLevelTypeFqn, this.scope, this.name,
+				this.parameterTypes, this.relevantCode);
 	}
 
 	public static MethodTypeStep builder() {
@@ -110,17 +115,15 @@ public class ParsedMethod {
 	}
 
 	public boolean containsLine(int line) {
-		for (int current : this.codeLines) {
-			if (current == line) {
-				return true;
-			}
-		}
-
-		return false;
+		return line >= this.firstCodeLine && line <= this.lastCodeLine;
 	}
 
 	public int getFirstCodeLine() {
-		return this.codeLines.get(0);
+		return this.firstCodeLine;
+	}
+
+	public int getLastCodeLine() {
+		return this.lastCodeLine;
 	}
 
 	public String getDescription() {
@@ -177,8 +180,12 @@ public class ParsedMethod {
 		return this.relevantCode;
 	}
 
+	/**
+	 * All code lines from the first to the last code line, prefer {@code containsLine(int)} or the first and last
+	 * code line where possible.
+	 */
 	public List<Integer> getCodeLines() {
-		return this.codeLines;
+		return IntStream.rangeClosed(this.firstCodeLine, this.lastCodeLine).boxed().collect(Collectors.toList());
 	}
 
 	public int getCodeColumn() {
@@ -205,23 +212,23 @@ public class ParsedMethod {
 		return this.outerDeclaringType;
 	}
 
+	/**
+	 * Fingerprint of the method type, top level type, scope, name, parameter types and relevant code.
+	 */
+	public MethodFingerprint getFingerprint() {
+		return this.fingerprint;
+	}
+
 	@Override
-	@SuppressWarnings("checkstyle:CyclomaticComplexity")
 	public boolean equals(Object obj) {
 		if (obj == this) {
 			return true;
 		} else if (obj instanceof ParsedMethod) {
 			ParsedMethod other = (ParsedMethod) obj;
-			return Objects.equals(this.methodType, other.methodType)
-					&& Objects.equals(this.topLevelTypeFqn, other.topLevelTypeFqn)
-					&& Objects.equals(this.topLevelSimpleName, other.topLevelSimpleName)
-					&& Objects.equals(this.scope, other.scope)
-					&& Objects.equals(this.enclosingSimpleName, other.enclosingSimpleName)
-					&& Objects.equals(this.name, other.name) && Objects.equals(this.relevantCode, other.relevantCode)
-					&& Objects.equals(this.codeLines, other.codeLines) && this.codeColumn == other.codeColumn
-					&& this.empty == other.empty && Objects.equals(this.parameterTypes, other.parameterTypes)
-					&& this.parameterCount == other.parameterCount
-					&& Objects.equals(this.typeParameters, other.typeParameters)
+			// the fingerprint covers the type, top level type, scope, name, parameter types and relevant code
+			return Objects.equals(this.fingerprint, other.fingerprint) && this.firstCodeLine == other.firstCodeLine
+					&& this.lastCodeLine == other.lastCodeLine && this.codeColumn == other.codeColumn
+					&& this.empty == other.empty && Objects.equals(this.typeParameters, other.typeParameters)
 					&& Objects.equals(this.outerDeclaringType, other.outerDeclaringType);
 		} else {
 			return false;
@@ -230,9 +237,7 @@ public class ParsedMethod {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.methodType, this.topLevelTypeFqn, this.topLevelSimpleName, this.scope,
-				this.enclosingSimpleName, this.name, this.relevantCode, this.codeLines, this.codeColumn, this.empty,
-				this.parameterTypes, this.parameterCount, this.typeParameters, this.outerDeclaringType);
+		return Objects.hash(this.fingerprint, this.firstCodeLine, this.lastCodeLine, this.codeColumn);
 	}
 
 	@Override
@@ -242,7 +247,8 @@ public class ParsedMethod {
 				.append("scope", this.scope).append("enclosingSimpleName", this.enclosingSimpleName)
 				.append("name", this.name)
 				.append("relevantCode", ToStringBuilder.shorten(this.relevantCode.replaceAll("\\R", ""), 30))
-				.append("codeLines", this.codeLines).append("codeColumn", this.codeColumn).append("empty", this.empty)
+				.append("firstCodeLine", this.firstCodeLine).append("lastCodeLine", this.lastCodeLine)
+				.append("codeColumn", this.codeColumn).append("empty", this.empty)
 				.append("parameterTypes", this.parameterTypes).append("parameterCount", this.parameterCount)
 				.append("typeParameters", this.typeParameters).append("outerDeclaringType", this.outerDeclaringType)
 				.build();
@@ -1,5 +1,6 @@
 package com.scheible.testgapanalysis.parser;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -42,7 +43,13 @@ public abstract class ParsedMethodBuilder {
 
 	public interface CodeLinesStep {
 
+		/**
+		 * The code lines of a method are always consecutive, therefore only the smallest and the largest line are
+		 * kept.
+		 */
 		CodeColumnStep setCodeLines(List<Integer> codeLines);
+
+		CodeColumnStep setCodeLines(int firstCodeLine, int lastCodeLine);
 	}
 
 	public interface CodeColumnStep {
@@ -97,7 +104,8 @@ public abstract class ParsedMethodBuilder {
 		List<String> scope;
 		String name;
 		String relevantCode;
-		List<Integer> codeLines;
+		int firstCodeLine;
+		int lastCodeLine;
 		int codeColumn;
 		boolean empty;
 
@@ -142,7 +150,13 @@ public abstract class ParsedMethodBuilder {
 
 		@Override
 		public CodeColumnStep setCodeLines(List<Integer> codeLines) {
-			this.codeLines = codeLines;
+			return setCodeLines(Collections.min(codeLines), Collections.max(codeLines));
+		}
+
+		@Override
+		public CodeColumnStep setCodeLines(int firstCodeLine, int lastCodeLine) {
+			this.firstCodeLine = firstCodeLine;
+			this.lastCodeLine = lastCodeLine;
 			return this;
 		}
 
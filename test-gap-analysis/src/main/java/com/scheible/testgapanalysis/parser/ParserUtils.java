@@ -5,7 +5,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
@@ -40,11 +39,6 @@ public abstract class ParserUtils {
 		return !codeNodes.isEmpty();
 	}
 
-	static List<Integer> getCodeLines(Node node) {
-		return IntStream.rangeClosed(node.getRange().get().begin.line, node.getRange().get().end.line).boxed()
-				.collect(Collectors.toList());
-	}
-
 	static String getTopLevelFqn(Node node) {
 		return ((TypeDeclaration<?>) getParents(node).get(0)).getFullyQualifiedName().get();
 	}
@@ -0,0 +1,186 @@
+package com.scheible.testgapanalysis.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.github.javaparser.Position;
+import com.github.javaparser.Range;
+
+/**
+ * Token level scan of a source code without building an AST. The code of a scanned source is masked the same
+ * way as the code of a method: comments are masked, whitespace within lines is collapsed and empty lines are
+ * skipped. The imports before the first type are masked as well and kept separately, they never contribute to
+ * a method. Two sources with the same scanned code therefore have the same methods (ignoring their
+ * positions).
+ * <p>
+ * Sources that can't be scanned reliably (unicode escapes, unterminated comments or literals, line separators
+ * that are unknown to Java or the {@code instanceof final} workaround) are not scanned at all.
+ *
+ * @author sj
+ */
+class ScannedSource {
+
+	private static final Pattern INSTANCEOF_FINAL_PATTERN = Pattern.compile("\\binstanceof\\s+final\\b");
+
+	private final String code;
+	private final Set<String> imports;
+
+	private ScannedSource(String code, Set<String> imports) {
+		this.code = code;
+		this.imports = Collections.unmodifiableSet(imports);
+	}
+
+	static Optional<ScannedSource> of(String code) {
+		if (code.contains("\\u") || code.indexOf('\u2028') >= 0 || code.indexOf('\u2029') >= 0
+				|| code.indexOf('\u0085') >= 0) {
+			return Optional.empty();
+		}
+
+		List<int[]> masks = new ArrayList<>();
+		if (!findComments(code, masks)) {
+			return Optional.empty();
+		}
+
+		Set<String> imports = new HashSet<>();
+		findImports(maskComments(code, masks), masks, imports);
+
+		LineIndex lineIndex = LineIndex.of(code);
+		List<Range> ranges = new ArrayList<>();
+		for (int[] mask : masks) {
+			ranges.add(new Range(toPosition(lineIndex, mask[0]), toPosition(lineIndex, mask[1] - 1)));
+		}
+
+		String scannedCode = MaskUtils.apply(lineIndex,
+				new Range(new Position(1, 1), new Position(Math.max(1, lineIndex.getLineCount()), Integer.MAX_VALUE)),
+				ranges, false);
+		return INSTANCEOF_FINAL_PATTERN.matcher(scannedCode).find()
+				? Optional.empty()
+				: Optional.of(new ScannedSource(scannedCode, imports));
+	}
+
+	/**
+	 * Adds the offsets (begin inclusive, end exclusive) of all comments, string and character literals as well as
+	 * text blocks are skipped. Returns {@code false} if a comment or a literal is not terminated.
+	 */
+	private static boolean findComments(String code, List<int[]> comments) {
+		int i = 0;
+		while (i < code.length()) {
+			int end;
+			if (code.startsWith("//", i)) {
+				end = i + 2;
+				while (end < code.length() && code.charAt(end) != '\n' && code.charAt(end) != '\r') {
+					end++;
+				}
+				comments.add(new int[]{i, end});
+			} else if (code.startsWith("/*", i)) {
+				int terminator = code.indexOf("*/", i + 2);
+				end = terminator < 0 ? -1 : terminator + 2;
+				comments.add(new int[]{i, end});
+			} else if (code.startsWith("\"\"\"", i)) {
+				end = skipLiteral(code, i + 3, "\"\"\"", false);
+			} else if (code.charAt(i) == '"' || code.charAt(i) == '\'') {
+				end = skipLiteral(code, i + 1, String.valueOf(code.charAt(i)), true);
+			} else {
+				end = i + 1;
+			}
+
+			if (end < 0) {
+				return false;
+			}
+			i = end;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the offset after the terminator of the literal or -1 if there is none.
+	 */
+	private static int skipLiteral(String code, int begin, String terminator, boolean singleLine) {
+		int i = begin;
+		while (i < code.length()) {
+			char current = code.charAt(i);
+			if (current == '\\') {
+				i += 2;
+			} else if (code.startsWith(terminator, i)) {
+				return i + terminator.length();
+			} else if (singleLine && (current == '\n' || current == '\r')) {
+				return -1;
+			} else {
+				i++;
+			}
+		}
+		return -1;
+	}
+
+	private static String maskComments(String code, List<int[]> comments) {
+		StringBuilder masked = new StringBuilder(code);
+		for (int[] comment : comments) {
+			for (int i = comment[0]; i < comment[1]; i++) {
+				if (masked.charAt(i) != '\n' && masked.charAt(i) != '\r') {
+					masked.setCharAt(i, ' ');
+				}
+			}
+		}
+		return masked.toString();
+	}
+
+	/**
+	 * Skips the package declaration and adds the offsets and the (collapsed) text of all import declarations
+	 * until the first other token.
+	 */
+	private static void findImports(String maskedCode, List<int[]> masks, Set<String> imports) {
+		int i = skipWhitespaceAndSemicolons(maskedCode, 0);
+
+		while (startsWithKeyword(maskedCode, i, "package") || startsWithKeyword(maskedCode, i, "import")) {
+			int end = maskedCode.indexOf(';', i) + 1;
+			String declaration = maskedCode.substring(i, Math.max(i, end));
+			if (end == 0 || declaration.indexOf('"') >= 0 || declaration.indexOf('\'') >= 0) {
+				return;
+			}
+
+			if (declaration.startsWith("import")) {
+				masks.add(new int[]{i, end});
+				imports.add(declaration.replaceAll("\\s+", " "));
+			}
+			i = skipWhitespaceAndSemicolons(maskedCode, end);
+		}
+	}
+
+	private static int skipWhitespaceAndSemicolons(String code, int begin) {
+		int i = begin;
+		while (i < code.length() && (Character.isWhitespace(code.charAt(i)) || code.charAt(i) == ';')) {
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean startsWithKeyword(String code, int offset, String keyword) {
+		int end = offset + keyword.length();
+		return code.startsWith(keyword, offset)
+				&& (end == code.length() || !Character.isJavaIdentifierPart(code.charAt(end)));
+	}
+
+	private static Position toPosition(LineIndex lineIndex, int offset) {
+		int line = lineIndex.getLine(offset);
+		return new Position(line, offset - lineIndex.getLineStart(line) + 1);
+	}
+
+	/**
+	 * The masked code with collapsed whitespace and without empty lines.
+	 */
+	String getCode() {
+		return this.code;
+	}
+
+	/**
+	 * The import declarations with collapsed whitespace.
+	 */
+	Set<String> getImports() {
+		return this.imports;
+	}
+}
@@ -0,0 +1,133 @@
+package com.scheible.testgapanalysis.parser;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+
+import com.scheible.testgapanalysis.parser.ParsedMethod.MethodType;
+import com.scheible.testgapanalysis.parser.ParsedMethodBuilder.CodeColumnStep;
+import com.scheible.testgapanalysis.parser.ParsedMethodBuilder.ParameterCountOrParameterTypesStep;
+
+/**
+ * Binary (de)serialization of parsed methods. The format starts with a version that has to be incremented
+ * whenever the format or the way methods are parsed changes. Data of any other version is not read at all.
+ *
+ * @author sj
+ */
+abstract class SerializationUtils {
+
+	private static final int FORMAT_VERSION = 2;
+
+	private SerializationUtils() {
+	}
+
+	static void write(DataOutput output, Set<ParsedMethod> methods) throws IOException {
+		output.writeInt(FORMAT_VERSION);
+		output.writeInt(methods.size());
+
+		for (ParsedMethod method : methods) {
+			writeString(output, method.getMethodType().name());
+			writeString(output, method.getTopLevelTypeFqn());
+			writeStrings(output, method.getScope());
+			writeString(output, method.getName());
+			writeString(output, method.getRelevantCode());
+			output.writeInt(method.getFirstCodeLine());
+			output.writeInt(method.getLastCodeLine());
+			output.writeInt(method.getCodeColumn());
+			output.writeBoolean(method.isEmpty());
+
+			// only constructors have real parameter types, all other methods are parsed with a parameter count
+			if (method.isAnyConstructor()) {
+				writeStrings(output, method.getParameterTypes());
+				output.writeInt(method.getTypeParameters().size());
+				for (Entry<String, String> typeParameter : method.getTypeParameters().entrySet()) {
+					writeString(output, typeParameter.getKey());
+					writeString(output, typeParameter.getValue());
+				}
+				output.writeBoolean(method.getOuterDeclaringType().isPresent());
+				if (method.getOuterDeclaringType().isPresent()) {
+					writeString(output, method.getOuterDeclaringType().get());
+				}
+			} else {
+				output.writeInt(method.getParameterCount());
+			}
+		}
+	}
+
+	/**
+	 * Returns an empty optional if the data was written in an other format version.
+	 */
+	static Optional<Set<ParsedMethod>> read(DataInput input) throws IOException {
+		if (input.readInt() != FORMAT_VERSION) {
+			return Optional.empty();
+		}
+
+		int count = input.readInt();
+		Set<ParsedMethod> methods = new HashSet<>();
+		for (int i = 0; i < count; i++) {
+			MethodType methodType = MethodType.valueOf(readString(input));
+			CodeColumnStep codeColumnStep = ParsedMethod.builder().setMethodType(methodType)
+					.setTopLevelTypeFqn(readString(input)).setScope(readStrings(input)).setName(readString(input))
+					.setRelevantCode(readString(input)).setCodeLines(input.readInt(), input.readInt());
+			ParameterCountOrParameterTypesStep parameterStep = codeColumnStep.setCodeColumn(input.readInt())
+					.setEmpty(input.readBoolean());
+
+			if (methodType == MethodType.CONSTRUCTOR || methodType == MethodType.ENUM_CONSTRUCTOR
+					|| methodType == MethodType.INNER_CLASS_CONSTRUCTOR) {
+				methods.add(parameterStep.setParameterTypes(readStrings(input)).setTypeParameters(readMap(input))
+						.setOuterDeclaringType(input.readBoolean() ? Optional.of(readString(input)) : Optional.empty())
+						.build());
+			} else {
+				methods.add(parameterStep.setParameterCount(input.readInt()).build());
+			}
+		}
+
+		return Optional.of(methods);
+	}
+
+	private static void writeString(DataOutput output, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	private static String readString(DataInput input) throws IOException {
+		byte[] bytes = new byte[input.readInt()];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeStrings(DataOutput output, List<String> values) throws IOException {
+		output.writeInt(values.size());
+		for (String value : values) {
+			writeString(output, value);
+		}
+	}
+
+	private static List<String> readStrings(DataInput input) throws IOException {
+		int size = input.readInt();
+		List<String> values = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			values.add(readString(input));
+		}
+		return values;
+	}
+
+	private static Map<String, String> readMap(DataInput input) throws IOException {
+		int size = input.readInt();
+		Map<String, String> values = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			values.put(readString(input), readString(input));
+		}
+		return values;
+	}
+}
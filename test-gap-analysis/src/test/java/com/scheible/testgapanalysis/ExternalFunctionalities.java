@@ -28,6 +28,11 @@ public class ExternalFunctionalities {
 
 	}
 
+	@ExternalFunctionality(packageMatchPattern = {"org.jacoco.core.**"})
+	public static class JaCoCo {
+
+	}
+
 	@ExternalFunctionality(packageMatchPattern = {"org.slf4j.**"})
 	public static class Slf4j {
 
@@ -2,19 +2,24 @@ package com.scheible.testgapanalysis.analysis;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import org.assertj.core.util.Sets;
 import org.junit.jupiter.api.Test;
 
+import com.scheible.testgapanalysis.analysis.Analysis.HunkFilter;
 import com.scheible.testgapanalysis.git.FileChange;
 import com.scheible.testgapanalysis.git.GitChangeSet;
 import com.scheible.testgapanalysis.git.GitRepoState;
 import com.scheible.testgapanalysis.jacoco.InstrumentedMethod;
 import com.scheible.testgapanalysis.parser.JavaParser;
+import com.scheible.testgapanalysis.parser.ParsedMethod;
 
 /**
  *
@@ -41,4 +46,71 @@ public class AnalysisTest {
 				result.getUncoveredMethods().keySet().stream().map(pm -> pm.getTopLevelTypeFqn() + "#" + pm.getName()))
 						.containsOnly("test.Changed#done");
 	}
+
+	@Test
+	public void testOnlyNewOrChangedMethodsOfEachFileAreFound() {
+		GitChangeSet changeSet = new GitChangeSet(new GitRepoState("HEAD^1"), GitRepoState.WORKING_TREE,
+				Sets.set(
+						new FileChange("Changed.java",
+								Optional.of("package test; public class Changed { void moved() { \"\".trim(); }\n"
+										+ "void changed() { \"\".trim(); }}"),
+								Optional.of("package test; public class Changed {\n\n void moved() { \"\".trim(); }\n"
+										+ "void changed() { \"\".size(); } void added() { \"\".trim(); }}")),
+						new FileChange("Deleted.java",
+								Optional.of("package test; public class Deleted { void deleted() { \"\".trim(); }}"),
+								Optional.empty())));
+
+		Set<ParsedMethod> newOrChangedMethods = new Analysis(new JavaParser(), 2).findNewOrChangedMethods(changeSet);
+		assertThat(newOrChangedMethods.stream().map(ParsedMethod::getName)).containsOnly("changed", "added");
+	}
+
+	@Test
+	public void testHunkFilterFindsTheSameMethods() {
+		GitChangeSet changeSet = new GitChangeSet(new GitRepoState("HEAD^1"), GitRepoState.WORKING_TREE,
+				Sets.set(new FileChange("Changed.java",
+						Optional.of("package test;\npublic class Changed {\n void removed() { \"\".trim(); }\n"
+								+ " void unchanged() { \"\".trim(); }\n void changed() { \"\".trim(); }\n}"),
+						Optional.of("package test;\npublic class Changed {\n void unchanged() { \"\".trim(); }\n"
+								+ " void changed() { \"\".size(); }\n void added() { \"\".trim(); }\n}"))));
+
+		assertThat(new Analysis(new JavaParser(), 1, HunkFilter.ENABLED).findNewOrChangedMethods(changeSet))
+				.isEqualTo(new Analysis(new JavaParser(), 1).findNewOrChangedMethods(changeSet))
+				.extracting(ParsedMethod::getName).containsOnly("changed", "added");
+	}
+
+	@Test
+	public void testPipelineOnlyKeepsTheNewOrChangedMethods() {
+		List<WeakReference<Set<ParsedMethod>>> parsedMethods = new ArrayList<>();
+		JavaParser javaParser = new JavaParser() {
+			@Override
+			public Set<ParsedMethod> getMethods(String code, String path) {
+				Set<ParsedMethod> methods = super.getMethods(code, path);
+				parsedMethods.add(new WeakReference<>(methods));
+				return methods;
+			}
+		};
+
+		FileChange change = new FileChange("Changed.java",
+				Optional.of("package test; public class Changed { void unchanged() { \"\".trim(); }\n"
+						+ "void changed() { \"\".trim(); }}"),
+				Optional.of("package test; public class Changed { void unchanged() { \"\".trim(); }\n"
+						+ "void changed() { \"\".size(); }}"));
+		Analysis analysis = new Analysis(javaParser, 1);
+
+		try (MethodParsingPipeline pipeline = analysis.createParsingPipeline()) {
+			pipeline.accept(change);
+			assertThat(parsedMethods).hasSize(2);
+
+			// the parsed method sets are released right after the file change was matched
+			for (int i = 0; i < 10 && parsedMethods.stream().anyMatch(reference -> reference.get() != null); i++) {
+				System.gc();
+			}
+			assertThat(parsedMethods).allMatch(reference -> reference.get() == null);
+
+			assertThat(analysis.findNewOrChangedMethods(
+					new GitChangeSet(new GitRepoState("HEAD^1"), GitRepoState.WORKING_TREE, Sets.set(change)),
+					pipeline)).extracting(ParsedMethod::getName).containsOnly("changed");
+			assertThat(parsedMethods).hasSize(2);
+		}
+	}
 }
@@ -0,0 +1,93 @@
+package com.scheible.testgapanalysis.analysis.testgap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.scheible.testgapanalysis.analysis.Analysis;
+import com.scheible.testgapanalysis.jacoco.InstrumentedMethod;
+import com.scheible.testgapanalysis.jacoco.resolver.IncrementalCoverageResolver;
+import com.scheible.testgapanalysis.parser.JavaParser;
+import com.scheible.testgapanalysis.parser.ParsedMethod;
+
+/**
+ *
+ * @author sj
+ */
+public class IncrementalResolutionTest {
+
+	private static final Set<ParsedMethod> FOO_METHODS = new JavaParser().getMethods("package org.example;\n" + //
+			"class Foo {\n" + //
+			"	void run() {\n" + //
+			"		System.out.println();\n" + //
+			"	}\n" + //
+			"}", "Foo.java");
+	private static final Set<ParsedMethod> BAR_METHODS = new JavaParser().getMethods("package org.example;\n" + //
+			"class Bar {\n" + //
+			"	void stop() {\n" + //
+			"		System.out.println();\n" + //
+			"	}\n" + //
+			"}", "Bar.java");
+
+	private static final InstrumentedMethod FOO_RUN = new InstrumentedMethod("org/example/Foo", "run", "()V", 4, 0);
+	private static final InstrumentedMethod FOO_RUN_COVERED = new InstrumentedMethod("org/example/Foo", "run", "()V", 4,
+			3);
+	private static final InstrumentedMethod BAR_STOP = new InstrumentedMethod("org/example/Bar", "stop", "()V", 4, 3);
+
+	@TempDir
+	public File tempDir;
+
+	private Set<InstrumentedMethod> coverage;
+	private final List<Set<String>> readTopLevelTypeFqns = new ArrayList<>();
+
+	@Test
+	public void testOnlyChangedTypesAreReadAndResultIsEqualToFullAnalysis() throws IOException {
+		File coverageFile = new File(this.tempDir, "jacoco.xml");
+		Set<File> coverageFiles = Collections.singleton(coverageFile);
+		IncrementalResolution incrementalResolution = new IncrementalResolution(new IncrementalCoverageResolver(),
+				(files, topLevelTypeFqns) -> {
+					this.readTopLevelTypeFqns.add(topLevelTypeFqns);
+					return this.coverage;
+				});
+
+		write(coverageFile, "first");
+		this.coverage = new HashSet<>(Arrays.asList(FOO_RUN, BAR_STOP));
+		assertThat(incrementalResolution.resolve(union(FOO_METHODS, BAR_METHODS), coverageFiles))
+				.isEqualTo(new Analysis(new JavaParser()).perform(union(FOO_METHODS, BAR_METHODS), this.coverage));
+
+		// Bar is not changed anymore and the coverage of Foo is still the same
+		assertThat(incrementalResolution.resolve(FOO_METHODS, coverageFiles))
+				.isEqualTo(new Analysis(new JavaParser()).perform(FOO_METHODS, this.coverage));
+
+		write(coverageFile, "second run");
+		this.coverage = new HashSet<>(Arrays.asList(FOO_RUN_COVERED, BAR_STOP));
+		assertThat(incrementalResolution.resolve(FOO_METHODS, coverageFiles))
+				.isEqualTo(new Analysis(new JavaParser()).perform(FOO_METHODS, this.coverage));
+
+		assertThat(this.readTopLevelTypeFqns).containsExactly(
+				new HashSet<>(Arrays.asList("org.example.Foo", "org.example.Bar")),
+				Collections.singleton("org.example.Foo"));
+	}
+
+	private static void write(File file, String content) throws IOException {
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Set<ParsedMethod> union(Set<ParsedMethod> first, Set<ParsedMethod> second) {
+		Set<ParsedMethod> union = new HashSet<>(first);
+		union.addAll(second);
+		return union;
+	}
+}
@@ -1,14 +1,25 @@
 package com.scheible.testgapanalysis.analysis.testgap;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 
 import com.scheible.testgapanalysis.analysis.Analysis;
+import com.scheible.testgapanalysis.git.GitChangeSet;
 import com.scheible.testgapanalysis.git.GitRepoChangeScanner;
+import com.scheible.testgapanalysis.git.GitRepoChangeScanner.PreviousType;
+import com.scheible.testgapanalysis.git.GitRepoState;
+import com.scheible.testgapanalysis.git.GitSession;
 import com.scheible.testgapanalysis.jacoco.JaCoCoReportParser;
 import com.scheible.testgapanalysis.parser.JavaParser;
 
@@ -40,6 +51,22 @@ public class TestGapAnalysisTest {
 		assertThat(report).isNotNull();
 	}
 
+	@Test
+	public void testPreviousBranchIsTheOnlyComparison() {
+		GitRepoChangeScanner gitRepoChangeScanner = mock(GitRepoChangeScanner.class);
+		when(gitRepoChangeScanner.compareHeadWithPrevious(any(GitSession.class), any(), eq(PreviousType.BRANCH),
+				eq("release-.*"), any()))
+						.thenReturn(new GitChangeSet(new GitRepoState("release-1.0.0"), new GitRepoState("HEAD"),
+								Collections.emptySet()));
+
+		TestGapReport report = new TestGapAnalysis(new Analysis(new JavaParser()), new JaCoCoReportParser(),
+				gitRepoChangeScanner).run(new File("."), new File("./src/main/java"), Collections.emptySet(),
+						Optional.empty(), Optional.of("release-.*"), Optional.empty());
+
+		assertThat(report.getPreviousState()).isEqualTo("release-1.0.0");
+		verify(gitRepoChangeScanner, never()).compareWorkingTreeWithHead(any(GitSession.class), any(), any());
+	}
+
 	private static TestGapAnalysis createTestGapAnalysis() {
 		return new TestGapAnalysis(new Analysis(new JavaParser()), new JaCoCoReportParser(),
 				new GitRepoChangeScanner());
@@ -19,10 +19,22 @@ public class TestGapReportTest {
 	@Test
 	public void testEmptyReportTestGap() {
 		TestGapReport report = TestGapReport.builder().setWorkDir(".").setPreviousState("asbc")
-				.setCurrentState(Optional.empty()).setJaCoCoReportFiles(emptySet()).setJaCoCoCoverageCount(0)
+				.setCurrentState(Optional.empty()).setJaCoCoReportFiles(emptySet()).setChangedTypesCoverageCount(0)
 				.setNewOrChangedFiles(emptySet()).setCoveredMethods(emptySet()).setUncoveredMethods(emptySet())
 				.setEmptyMethods(emptySet()).setUnresolvableMethods(emptySet())
 				.setAmbiguouslyResolvedCoverage(emptyMap()).build();
 		assertThat(report.getTestGap()).isNotNaN().isEqualTo(0.0d, offset(0.01));
 	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testDeprecatedCoverageCountIsTheChangedTypesCoverageCount() {
+		TestGapReport report = TestGapReport.builder().setWorkDir(".").setPreviousState("asbc")
+				.setCurrentState(Optional.empty()).setJaCoCoReportFiles(emptySet()).setJaCoCoCoverageCount(42)
+				.setNewOrChangedFiles(emptySet()).setCoveredMethods(emptySet()).setUncoveredMethods(emptySet())
+				.setEmptyMethods(emptySet()).setUnresolvableMethods(emptySet())
+				.setAmbiguouslyResolvedCoverage(emptyMap()).build();
+		assertThat(report.getChangedTypesCoverageCount()).isEqualTo(42);
+		assertThat(report.getJaCoCoCoverageCount()).isEqualTo(42);
+	}
 }
@@ -0,0 +1,46 @@
+package com.scheible.testgapanalysis.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+public class ParallelUtilsTest {
+
+	@Test
+	public void testResultsAreInInputOrder() {
+		List<Integer> items = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+		assertThat(ParallelUtils.map(items, item -> item * 2, 8))
+				.isEqualTo(items.stream().map(item -> item * 2).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testSequentialExecution() {
+		assertThat(ParallelUtils.map(Arrays.asList("a", "b"), item -> Thread.currentThread().getName(), 1))
+				.containsOnly(Thread.currentThread().getName());
+	}
+
+	@Test
+	public void testExceptionIsUnwrapped() {
+		assertThatThrownBy(() -> ParallelUtils.map(Arrays.asList(1, 2, 3), item -> {
+			throw new IllegalArgumentException("item " + item);
+		}, 2)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testPartition() {
+		assertThat(ParallelUtils.partition(Arrays.asList(1, 2, 3, 4, 5), 2)).containsExactly(Arrays.asList(1, 3, 5),
+				Arrays.asList(2, 4));
+		assertThat(ParallelUtils.partition(Arrays.asList(1, 2), 4)).hasSize(2);
+	}
+}
@@ -0,0 +1,41 @@
+package com.scheible.testgapanalysis.git;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+public class LineDiffTest {
+
+	@Test
+	public void testChangedLine() {
+		LineDiff lineDiff = LineDiff.of("a\nb\nc\nd\ne\n", "a\nb\nX\nd\ne\n");
+
+		assertThat(lineDiff.overlapsCurrent(3, 3)).isTrue();
+		assertThat(lineDiff.overlapsPrevious(3, 3)).isTrue();
+		assertThat(lineDiff.overlapsCurrent(1, 1)).isFalse();
+		assertThat(lineDiff.overlapsCurrent(5, 5)).isFalse();
+	}
+
+	@Test
+	public void testNeighboursOfRemovedLinesAreTouchedInBothContents() {
+		LineDiff lineDiff = LineDiff.of("a\nb\nc\nd\ne\n", "a\nb\nd\ne\n");
+
+		assertThat(lineDiff.overlapsPrevious(2, 2)).isTrue();
+		assertThat(lineDiff.overlapsCurrent(2, 2)).isTrue();
+		assertThat(lineDiff.overlapsPrevious(1, 1)).isFalse();
+		assertThat(lineDiff.overlapsCurrent(1, 1)).isFalse();
+		assertThat(lineDiff.overlapsCurrent(4, 4)).isFalse();
+	}
+
+	@Test
+	public void testUnchangedContent() {
+		LineDiff lineDiff = LineDiff.of("a\nb\n", "a\nb\n");
+
+		assertThat(lineDiff.isEmpty()).isTrue();
+		assertThat(lineDiff.overlapsCurrent(1, 2)).isFalse();
+	}
+}
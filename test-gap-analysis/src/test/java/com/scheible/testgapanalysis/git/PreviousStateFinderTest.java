@@ -7,6 +7,7 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.regex.Pattern;
 
 import org.assertj.core.util.Sets;
 import org.eclipse.jgit.lib.ObjectId;
@@ -26,32 +27,32 @@ public class PreviousStateFinderTest {
 	public void testFindPreviousNotHead() {
 		assertThat(PreviousStateFinder.findPrevious(Sets.newLinkedHashSet( //
 				new TimestampedState("test", time(10, 0, 0), mock(ObjectId.class), false) //
-		), "test").getName()).isEqualTo("test");
+		), Pattern.compile("test")).getName()).isEqualTo("test");
 	}
 
 	@Test
 	public void testFindPreviousHeadMultipleStates() {
 		assertThat(PreviousStateFinder.findPrevious(Sets.newLinkedHashSet( //
 				new TimestampedState("test2", time(12, 0, 0), mock(ObjectId.class), false), //
-				new TimestampedState("test1", time(10, 0, 0), mock(ObjectId.class), true)), "test\\d+").getName())
-						.isEqualTo("test2");
+				new TimestampedState("test1", time(10, 0, 0), mock(ObjectId.class), true)), //
+				Pattern.compile("test\\d+")).getName()).isEqualTo("test2");
 	}
 
 	@Test
 	public void testFindPreviousHeadSingleState() {
 		assertThat(PreviousStateFinder.findPrevious(Sets.newLinkedHashSet( //
 				new TimestampedState("test", time(10, 0, 0), mock(ObjectId.class), true) //
-		), "test").getName()).isEqualTo("test");
+		), Pattern.compile("test")).getName()).isEqualTo("test");
 	}
 
 	@Test
 	public void testNameMatching() {
-		assertThat(PreviousStateFinder.matches("v1", "v\\d+")).isTrue();
+		assertThat(PreviousStateFinder.matches("v1", Pattern.compile("v\\d+"))).isTrue();
 	}
 
 	@Test
 	public void testNameMatchingWithSlash() {
-		assertThat(PreviousStateFinder.matches("refs/remote/v1", "v\\d+")).isTrue();
+		assertThat(PreviousStateFinder.matches("refs/remote/v1", Pattern.compile("v\\d+"))).isTrue();
 	}
 
 	private static OffsetDateTime time(int hour, int minute, int second) {
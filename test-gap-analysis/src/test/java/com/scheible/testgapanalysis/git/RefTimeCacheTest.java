@@ -0,0 +1,60 @@
+package com.scheible.testgapanalysis.git;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.scheible.testgapanalysis.git.RefTimeCache.RefTime;
+
+/**
+ *
+ * @author sj
+ */
+public class RefTimeCacheTest {
+
+	@TempDir
+	public File tempDir;
+
+	@Test
+	public void testPersistedRefTimeIsEqualToResolvedRefTime() throws GitAPIException, IOException {
+		Path cacheFile = this.tempDir.toPath().resolve("ref-times.txt");
+
+		try (Git git = Git.init().setDirectory(new File(this.tempDir, "repo")).call();
+				RevWalk revWalk = new RevWalk(git.getRepository())) {
+			RevCommit commit = git.commit().setMessage("initial commit").call();
+
+			RefTimeCache refTimeCache = new RefTimeCache(Optional.of(cacheFile));
+			RefTime resolved = refTimeCache.get(revWalk, commit);
+			refTimeCache.save();
+
+			RefTime cached = new RefTimeCache(Optional.of(cacheFile)).get(revWalk, commit);
+			assertThat(cached.getCommitId()).isEqualTo(commit);
+			assertThat(cached.getTimestamp()).isEqualTo(resolved.getTimestamp());
+		}
+	}
+
+	@Test
+	public void testCorruptCacheIsIgnored() throws GitAPIException, IOException {
+		Path cacheFile = this.tempDir.toPath().resolve("ref-times.txt");
+		Files.write(cacheFile, "1\nnot a ref time".getBytes(StandardCharsets.UTF_8));
+
+		try (Git git = Git.init().setDirectory(new File(this.tempDir, "repo")).call();
+				RevWalk revWalk = new RevWalk(git.getRepository())) {
+			RevCommit commit = git.commit().setMessage("initial commit").call();
+
+			assertThat(new RefTimeCache(Optional.of(cacheFile)).get(revWalk, commit).getCommitId()).isEqualTo(commit);
+		}
+	}
+}
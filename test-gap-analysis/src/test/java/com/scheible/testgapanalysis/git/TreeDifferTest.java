@@ -6,7 +6,9 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
@@ -92,6 +94,54 @@ public class TreeDifferTest {
 
 	}
 
+	@Test
+	public void testFileMoveWithRenameDetection() throws GitAPIException, IOException {
+		createFile("test/moved.txt", "moved");
+		moveFile("test/moved.txt", "test/src/moved.txt");
+
+		Set<FileChange> diff = new TreeDiffer(true).scan(git.getRepository(), git.getRepository().resolve("HEAD^"),
+				git.getRepository().resolve("HEAD"), TreeFilter.ALL);
+		assertThat(diff).containsOnly(new FileChange("test/src/moved.txt", Optional.of("moved"), Optional.of("moved")));
+	}
+
+	@Test
+	public void testBinaryFileIsSkipped() throws GitAPIException, IOException {
+		createFile("test/binary.txt", "bin\0ary");
+
+		Set<FileChange> diff = treeDiffer.scan(git.getRepository(), git.getRepository().resolve("HEAD^"),
+				git.getRepository().resolve("HEAD"), TreeFilter.ALL);
+		assertThat(diff).isEmpty();
+	}
+
+	@Test
+	public void testConcurrentLoadingPassesEveryChangeToConsumer() throws GitAPIException, IOException {
+		createFile("test/first.txt", "first");
+		createFile("test/second.txt", "second");
+		createFile("test/third.txt", "third");
+
+		Set<FileChange> consumed = ConcurrentHashMap.newKeySet();
+		try (GitSession session = GitSession.of(git.getRepository())) {
+			Set<FileChange> diff = new TreeDiffer(false, 2).scan(session, git.getRepository().resolve("HEAD~3"),
+					git.getRepository().resolve("HEAD"), TreeFilter.ALL, consumed::add);
+			assertThat(diff).hasSize(3).isEqualTo(consumed);
+		}
+	}
+
+	@Test
+	public void testWorkingTreeModificationWithSameSize() throws GitAPIException, IOException {
+		createFile("test/same-size.txt", "before");
+		Files.write(temporaryFolder.toPath().resolve("test/same-size.txt"), "after!".getBytes());
+
+		try {
+			Set<FileChange> diff = treeDiffer.scan(git.getRepository(), git.getRepository().resolve("HEAD"), null,
+					TreeFilter.ALL);
+			assertThat(diff)
+					.containsOnly(new FileChange("test/same-size.txt", Optional.of("before"), Optional.of("after!")));
+		} finally {
+			git.checkout().addPath("test/same-size.txt").call();
+		}
+	}
+
 	@Test
 	public void testFileDeletion() throws GitAPIException, IOException {
 		createFile("test/readme.txt", "readme");
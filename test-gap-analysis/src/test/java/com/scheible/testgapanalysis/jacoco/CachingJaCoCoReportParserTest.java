@@ -0,0 +1,67 @@
+package com.scheible.testgapanalysis.jacoco;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author sj
+ */
+public class CachingJaCoCoReportParserTest {
+
+	private static final String REPORT = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" //
+			+ "<report name=\"test\">\n" //
+			+ "	<package name=\"org/example\">\n" //
+			+ "		<class name=\"org/example/Test\" sourcefilename=\"Test.java\">\n" //
+			+ "			<method name=\"&lt;init&gt;\" desc=\"()V\" line=\"3\">\n" //
+			+ "				<counter type=\"INSTRUCTION\" missed=\"0\" covered=\"%d\"/>\n" //
+			+ "			</method>\n" //
+			+ "			<method name=\"run\" desc=\"(Ljava/lang/String;)V\" line=\"7\">\n" //
+			+ "				<counter type=\"INSTRUCTION\" missed=\"4\" covered=\"0\"/>\n" //
+			+ "			</method>\n" //
+			+ "		</class>\n" //
+			+ "	</package>\n" //
+			+ "</report>";
+
+	@TempDir
+	public File tempDir;
+
+	@Test
+	public void testSnapshotMethodsAreEqualToParsedMethods() throws IOException {
+		Set<File> reportFiles = Collections.singleton(writeReport(3));
+		File snapshotFile = new File(this.tempDir, "coverage.snapshot");
+		Set<InstrumentedMethod> parsedMethods = new JaCoCoReportParser().getInstrumentedMethods(reportFiles);
+
+		assertThat(new CachingJaCoCoReportParser(snapshotFile).getInstrumentedMethods(reportFiles))
+				.isEqualTo(parsedMethods);
+		assertThat(snapshotFile).exists();
+		assertThat(new CachingJaCoCoReportParser(snapshotFile).getInstrumentedMethods(reportFiles))
+				.isEqualTo(parsedMethods);
+	}
+
+	@Test
+	public void testChangedReportInvalidatesSnapshot() throws IOException {
+		File snapshotFile = new File(this.tempDir, "coverage.snapshot");
+		new CachingJaCoCoReportParser(snapshotFile).getInstrumentedMethods(Collections.singleton(writeReport(3)));
+
+		assertThat(new CachingJaCoCoReportParser(snapshotFile)
+				.getInstrumentedMethods(Collections.singleton(writeReport(42))))
+						.contains(new InstrumentedMethod("org/example/Test", "<init>", "()V", 3, 42));
+	}
+
+	private File writeReport(int coveredInstructionCount) throws IOException {
+		File reportFile = new File(this.tempDir, "jacoco.xml");
+		Files.write(reportFile.toPath(),
+				String.format(REPORT, coveredInstructionCount).getBytes(StandardCharsets.UTF_8));
+		return reportFile;
+	}
+}
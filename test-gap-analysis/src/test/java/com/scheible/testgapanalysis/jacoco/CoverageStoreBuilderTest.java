@@ -0,0 +1,40 @@
+package com.scheible.testgapanalysis.jacoco;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+public class CoverageStoreBuilderTest {
+
+	@Test
+	public void testDistinctCoveredInstructionCountsAreSummed() {
+		CoverageStoreBuilder builder = new CoverageStoreBuilder();
+		builder.add("org/example/Foo", "run", "()V", 7, 2);
+		builder.add("org/example/Foo", "run", "()V", 7, 2);
+		builder.add("org/example/Foo", "run", "()V", 7, 3);
+		builder.add("org/example/Foo", "run", "()V", 7, 5);
+		builder.add("org/example/Foo", "run", "()V", 7, 3);
+		builder.add("org/example/Foo", "run", "()V", 8, 1);
+
+		assertThat(builder.build()).containsOnly(new InstrumentedMethod("org/example/Foo", "run", "()V", 7, 10),
+				new InstrumentedMethod("org/example/Foo", "run", "()V", 8, 1));
+	}
+
+	@Test
+	public void testManyMethods() {
+		CoverageStoreBuilder builder = new CoverageStoreBuilder();
+		for (int report = 0; report < 2; report++) {
+			for (int i = 0; i < 10_000; i++) {
+				builder.add("org/example/Foo" + i / 10, "method" + i % 10, "()V", i, report);
+			}
+		}
+
+		CoverageStore store = builder.build();
+		assertThat(store).hasSize(10_000).allMatch(method -> method.getCoveredInstructionCount() == 1)
+				.contains(new InstrumentedMethod("org/example/Foo999", "method9", "()V", 9_999, 1));
+	}
+}
@@ -0,0 +1,62 @@
+package com.scheible.testgapanalysis.jacoco;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+public class CoverageStoreTest {
+
+	private static final Set<InstrumentedMethod> METHODS = new HashSet<>(
+			Arrays.asList(new InstrumentedMethod("org/example/Foo", "<init>", "()V", 3, 1),
+					new InstrumentedMethod("org/example/Foo$Bar", "run", "()V", 7, 0),
+					new InstrumentedMethod("org/example/Foo2", "run", "()V", 11, 2),
+					new InstrumentedMethod("org/other/Baz", "lambda$run$0", "(Ljava/lang/String;)V", 5, 4)));
+
+	@Test
+	public void testStoreEqualsMethods() {
+		CoverageStore store = CoverageStore.of(METHODS);
+
+		assertThat(store).hasSize(4).isEqualTo(METHODS);
+		assertThat(METHODS).isEqualTo(store);
+		assertThat(store).contains(new InstrumentedMethod("org/example/Foo$Bar", "run", "()V", 7, 0))
+				.doesNotContain(new InstrumentedMethod("org/example/Foo$Bar", "run", "()V", 7, 1));
+	}
+
+	@Test
+	public void testTopLevelTypes() {
+		assertThat(CoverageStore.of(METHODS)
+				.getTopLevelTypes(new HashSet<>(Arrays.asList("org.example.Foo", "org.example.Unknown")))).containsOnly(
+						new InstrumentedMethod("org/example/Foo", "<init>", "()V", 3, 1),
+						new InstrumentedMethod("org/example/Foo$Bar", "run", "()V", 7, 0));
+		assertThat(CoverageStore.of(METHODS).getTopLevelTypes(Collections.emptySet())).isEmpty();
+	}
+
+	@Test
+	public void testFlyweightsShareStrings() {
+		Iterator<InstrumentedMethod> methods = CoverageStore.of(METHODS)
+				.getTopLevelTypes(Collections.singleton("org.example.Foo")).iterator();
+		InstrumentedMethod first = methods.next();
+		InstrumentedMethod second = methods.next();
+
+		assertThat(first.getDescription()).isEqualTo("()V").isSameAs(second.getDescription());
+	}
+
+	@Test
+	public void testSimpleNamesShareTheStringsOfTheTable() {
+		InstrumentedMethod method = CoverageStore
+				.of(Collections.singleton(new InstrumentedMethod("org/example/Foo", "Foo", "()V", 3, 1))).iterator()
+				.next();
+
+		assertThat(method.getSimpleClassName()).isEqualTo("Foo").isSameAs(method.getName());
+	}
+}
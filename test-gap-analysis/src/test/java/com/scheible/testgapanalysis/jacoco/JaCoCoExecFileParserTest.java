@@ -0,0 +1,53 @@
+package com.scheible.testgapanalysis.jacoco;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Set;
+
+import org.jacoco.core.data.ExecutionDataWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author sj
+ */
+public class JaCoCoExecFileParserTest {
+
+	@TempDir
+	public File tempDir;
+
+	@Test
+	public void testOnlyClassesOfTopLevelTypesAreAnalyzed() throws IOException, URISyntaxException {
+		File classesDir = new File(
+				CoverageStoreBuilder.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+		Set<InstrumentedMethod> methods = new JaCoCoExecFileParser(classesDir).getInstrumentedMethods(
+				Collections.singleton(writeEmptyExecFile()),
+				Collections.singleton(CoverageStoreBuilder.class.getName()));
+
+		assertThat(methods).isNotEmpty().allMatch(method -> method.getCoveredInstructionCount() == 0)
+				.extracting(InstrumentedMethod::getClassName)
+				.containsOnly("com/scheible/testgapanalysis/jacoco/CoverageStoreBuilder");
+	}
+
+	@Test
+	public void testUnknownTopLevelTypeHasNoMethods() throws IOException {
+		assertThat(new JaCoCoExecFileParser(this.tempDir).getInstrumentedMethods(
+				Collections.singleton(writeEmptyExecFile()), Collections.singleton("org.example.Unknown"))).isEmpty();
+	}
+
+	private File writeEmptyExecFile() throws IOException {
+		File execFile = new File(this.tempDir, "jacoco.exec");
+		try (OutputStream output = Files.newOutputStream(execFile.toPath())) {
+			new ExecutionDataWriter(output).flush();
+		}
+		return execFile;
+	}
+}
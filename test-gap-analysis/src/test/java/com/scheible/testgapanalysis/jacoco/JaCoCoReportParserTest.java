@@ -1,12 +1,22 @@
 package com.scheible.testgapanalysis.jacoco;
 
 import static com.scheible.testgapanalysis.jacoco.JaCoCoReportParser.getIsNotChildOfSubDirsPredicate;
+import static com.scheible.testgapanalysis.jacoco.JaCoCoReportParser.getTopLevelTypeFqn;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.util.Sets.newLinkedHashSet;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.scheible.testgapanalysis.jacoco.JaCoCoReportParser.Engine;
 
 /**
  *
@@ -31,10 +41,19 @@ public class JaCoCoReportParserTest {
 			+ "				<counter type=\"COMPLEXITY\" missed=\"0\" covered=\"1\"/>\n" //
 			+ "				<counter type=\"METHOD\" missed=\"0\" covered=\"1\"/>\n" //
 			+ "			</method>\n" //
+			+ "			<counter type=\"INSTRUCTION\" missed=\"3\" covered=\"12\"/>\n" //
 			+ "		</class>\n" //
+			+ "		<sourcefile name=\"GitHelper.java\">\n" //
+			+ "			<line nr=\"37\" mi=\"3\" ci=\"0\" mb=\"0\" cb=\"0\"/>\n" //
+			+ "			<counter type=\"INSTRUCTION\" missed=\"3\" covered=\"12\"/>\n" //
+			+ "		</sourcefile>\n" //
 			+ "	</package>\n" //
+			+ "	<counter type=\"INSTRUCTION\" missed=\"3\" covered=\"12\"/>\n" //
 			+ "</report>";
 
+	@TempDir
+	public File tempDir;
+
 	@Test
 	public void testMethodCoverage() {
 		JaCoCoReportParser jaCoCoReportParser = new JaCoCoReportParser();
@@ -44,6 +63,28 @@ public class JaCoCoReportParserTest {
 						"(Ljava/io/File;)Lorg/eclipse/jgit/lib/Repository;", 42, 12));
 	}
 
+	@Test
+	public void testStreamingAndDomEngineResultsAreIdentical() {
+		assertThat(new JaCoCoReportParser(Engine.STREAMING).getInstrumentedMethods(REPORT))
+				.isEqualTo(new JaCoCoReportParser(Engine.DOM).getInstrumentedMethods(REPORT));
+	}
+
+	@Test
+	public void testOnlyClassesOfTopLevelTypesAreRead() throws IOException {
+		Set<File> reportFiles = Collections.singleton(Files
+				.write(this.tempDir.toPath().resolve("jacoco.xml"), REPORT.getBytes(StandardCharsets.UTF_8)).toFile());
+
+		assertThat(new JaCoCoReportParser().getInstrumentedMethods(reportFiles,
+				Collections.singleton("com.scheible.testgapanalysis.git.GitHelper"))).hasSize(2);
+		assertThat(new JaCoCoReportParser().getInstrumentedMethods(reportFiles,
+				Collections.singleton("com.scheible.testgapanalysis.git.Other"))).isEmpty();
+	}
+
+	@Test
+	public void testTopLevelTypeFqn() {
+		assertThat(getTopLevelTypeFqn("org/example/Foo$Bar$1")).isEqualTo("org.example.Foo");
+	}
+
 	@Test
 	public void testIsNotChildOfSubDirsPredicate() {
 		assertThat(getIsNotChildOfSubDirsPredicate(newLinkedHashSet(Paths.get("test", "ignoreA")))
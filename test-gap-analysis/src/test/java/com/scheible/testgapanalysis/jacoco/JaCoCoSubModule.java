@@ -2,14 +2,17 @@ package com.scheible.testgapanalysis.jacoco;
 
 import com.scheible.pocketsaw.api.SubModule;
 import com.scheible.testgapanalysis.ExternalFunctionalities.DomParser;
+import com.scheible.testgapanalysis.ExternalFunctionalities.JaCoCo;
 import com.scheible.testgapanalysis.ExternalFunctionalities.SaxParser;
+import com.scheible.testgapanalysis.ExternalFunctionalities.Slf4j;
 import com.scheible.testgapanalysis.common.CommonSubModule;
 
 /**
  *
  * @author sj
  */
-@SubModule(includeSubPackages = false, uses = {DomParser.class, SaxParser.class, CommonSubModule.class})
+@SubModule(includeSubPackages = false, uses = {DomParser.class, SaxParser.class, JaCoCo.class, CommonSubModule.class,
+		Slf4j.class})
 public class JaCoCoSubModule {
 
 }
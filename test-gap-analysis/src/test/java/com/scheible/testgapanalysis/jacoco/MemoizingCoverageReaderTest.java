@@ -0,0 +1,72 @@
+package com.scheible.testgapanalysis.jacoco;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author sj
+ */
+public class MemoizingCoverageReaderTest {
+
+	private static final InstrumentedMethod FOO_RUN = new InstrumentedMethod("org/example/Foo", "run", "()V", 3, 1);
+	private static final InstrumentedMethod FOO_INNER_RUN = new InstrumentedMethod("org/example/Foo$Inner", "run",
+			"()V", 7, 0);
+	private static final InstrumentedMethod BAR_RUN = new InstrumentedMethod("org/example/Bar", "run", "()V", 5, 2);
+
+	@TempDir
+	public File tempDir;
+
+	private final List<Set<String>> requestedTopLevelTypeFqns = new ArrayList<>();
+
+	private final CoverageReader delegate = (coverageFiles, topLevelTypeFqns) -> {
+		this.requestedTopLevelTypeFqns.add(topLevelTypeFqns);
+		return new HashSet<>(Arrays.asList(FOO_RUN, FOO_INNER_RUN, BAR_RUN));
+	};
+
+	@Test
+	public void testOnlyUnknownTopLevelTypesAreRead() throws IOException {
+		Set<File> coverageFiles = Collections.singleton(writeCoverageFile("a"));
+		MemoizingCoverageReader reader = new MemoizingCoverageReader(this.delegate);
+
+		assertThat(reader.getInstrumentedMethods(coverageFiles, Collections.singleton("org.example.Foo")))
+				.containsOnly(FOO_RUN, FOO_INNER_RUN);
+		assertThat(reader.getInstrumentedMethods(coverageFiles,
+				new HashSet<>(Arrays.asList("org.example.Foo", "org.example.Bar")))).containsOnly(FOO_RUN,
+						FOO_INNER_RUN, BAR_RUN);
+
+		assertThat(this.requestedTopLevelTypeFqns).containsExactly(Collections.singleton("org.example.Foo"),
+				Collections.singleton("org.example.Bar"));
+	}
+
+	@Test
+	public void testChangedCoverageFilesAreReadAgain() throws IOException {
+		MemoizingCoverageReader reader = new MemoizingCoverageReader(this.delegate);
+
+		reader.getInstrumentedMethods(Collections.singleton(writeCoverageFile("a")),
+				Collections.singleton("org.example.Bar"));
+		reader.getInstrumentedMethods(Collections.singleton(writeCoverageFile("ab")),
+				Collections.singleton("org.example.Bar"));
+
+		assertThat(this.requestedTopLevelTypeFqns).hasSize(2);
+	}
+
+	private File writeCoverageFile(String content) throws IOException {
+		File coverageFile = new File(this.tempDir, "jacoco.xml");
+		Files.write(coverageFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return coverageFile;
+	}
+}
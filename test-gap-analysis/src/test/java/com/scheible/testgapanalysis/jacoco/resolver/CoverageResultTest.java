@@ -22,6 +22,7 @@ import com.scheible.testgapanalysis.parser.ParsedMethod;
  */
 public class CoverageResultTest {
 
+	private final ParsedMethod thirdMethod = mock(ParsedMethod.class);
 	private final ParsedMethod secondMethod = mock(ParsedMethod.class);
 	private final ParsedMethod firstMethod = mock(ParsedMethod.class);
 
@@ -61,4 +62,21 @@ public class CoverageResultTest {
 				.containsOnly(entry(this.coverageInfo, Sets.newLinkedHashSet(this.firstMethod, this.secondMethod)));
 		assertThat(result.getUnresolvedMethods()).containsOnly(this.firstMethod, this.secondMethod);
 	}
+
+	@Test
+	public void testMergeIsAssociative() {
+		CoverageResult first = new CoverageResult(newHashMap(this.firstMethod, this.coverageInfo), emptySet());
+		CoverageResult second = new CoverageResult(newHashMap(this.secondMethod, this.coverageInfo), emptySet());
+		CoverageResult third = new CoverageResult(newHashMap(this.thirdMethod, this.coverageInfo), emptySet());
+
+		CoverageResult leftGrouped = CoverageResult.merge(CoverageResult.merge(first, second), third);
+		CoverageResult rightGrouped = CoverageResult.merge(first, CoverageResult.merge(second, third));
+
+		assertThat(leftGrouped).isEqualTo(rightGrouped);
+		assertThat(leftGrouped.getResolvedMethods()).isEmpty();
+		assertThat(leftGrouped.getAmbiguousCoverage()).containsOnly(
+				entry(this.coverageInfo, Sets.newLinkedHashSet(this.firstMethod, this.secondMethod, this.thirdMethod)));
+		assertThat(leftGrouped.getUnresolvedMethods()).containsOnly(this.firstMethod, this.secondMethod,
+				this.thirdMethod);
+	}
 }
@@ -0,0 +1,96 @@
+package com.scheible.testgapanalysis.jacoco.resolver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.scheible.testgapanalysis.jacoco.InstrumentedMethod;
+import com.scheible.testgapanalysis.parser.JavaParser;
+import com.scheible.testgapanalysis.parser.ParsedMethod;
+
+/**
+ *
+ * @author sj
+ */
+public class IncrementalCoverageResolverTest {
+
+	private static final Set<ParsedMethod> FOO_METHODS = new JavaParser().getMethods("package org.example;\n" + //
+			"class Foo {\n" + //
+			"	void run() {\n" + //
+			"		System.out.println();\n" + //
+			"	}\n" + //
+			"	void empty() {\n" + //
+			"	}\n" + //
+			"}", "Foo.java");
+	private static final Set<ParsedMethod> BAR_METHODS = new JavaParser().getMethods("package org.example;\n" + //
+			"class Bar {\n" + //
+			"	void stop() {\n" + //
+			"		System.out.println();\n" + //
+			"	}\n" + //
+			"}", "Bar.java");
+
+	private static final InstrumentedMethod FOO_RUN = new InstrumentedMethod("org/example/Foo", "run", "()V", 4, 0);
+	private static final InstrumentedMethod FOO_RUN_COVERED = new InstrumentedMethod("org/example/Foo", "run", "()V", 4,
+			3);
+	private static final InstrumentedMethod BAR_STOP = new InstrumentedMethod("org/example/Bar", "stop", "()V", 4, 3);
+
+	@Test
+	public void testMergedResultIsEqualToFullResolution() {
+		IncrementalCoverageResolver resolver = new IncrementalCoverageResolver(2);
+		resolver.updateMethods(Collections.emptySet(), union(FOO_METHODS, BAR_METHODS));
+		resolver.updateCoverage(Collections.emptySet(), new HashSet<>(Arrays.asList(FOO_RUN, BAR_STOP)));
+
+		assertThat(resolver.getResult()).isEqualTo(CoverageResolver
+				.with(new HashSet<>(Arrays.asList(FOO_RUN, BAR_STOP))).resolve(union(FOO_METHODS, BAR_METHODS)));
+	}
+
+	@Test
+	public void testCoverageUpdateResolvesOnlyAffectedTypes() {
+		IncrementalCoverageResolver resolver = new IncrementalCoverageResolver();
+		resolver.updateMethods(Collections.emptySet(), union(FOO_METHODS, BAR_METHODS));
+		resolver.updateCoverage(Collections.emptySet(), new HashSet<>(Arrays.asList(FOO_RUN, BAR_STOP)));
+
+		CoverageResult delta = resolver.updateCoverage(Collections.singleton("org.example.Foo"),
+				Collections.singleton(FOO_RUN_COVERED));
+
+		assertThat(delta).isEqualTo(CoverageResolver.with(Collections.singleton(FOO_RUN_COVERED)).resolve(FOO_METHODS));
+		assertThat(resolver.getResult().getResolvedMethods()).containsValues(FOO_RUN_COVERED, BAR_STOP)
+				.doesNotContainValue(FOO_RUN);
+	}
+
+	@Test
+	public void testRemovedCoverageMakesMethodsUnresolved() {
+		IncrementalCoverageResolver resolver = new IncrementalCoverageResolver();
+		resolver.updateMethods(Collections.emptySet(), BAR_METHODS);
+		resolver.updateCoverage(Collections.emptySet(), Collections.singleton(BAR_STOP));
+
+		CoverageResult delta = resolver.updateCoverage(Collections.singleton("org.example.Bar"),
+				Collections.emptySet());
+
+		assertThat(delta.getResolvedMethods()).isEmpty();
+		assertThat(delta.getUnresolvedMethods()).isEqualTo(BAR_METHODS);
+	}
+
+	@Test
+	public void testRemovedMethodsAreNotPartOfTheResultAnymore() {
+		IncrementalCoverageResolver resolver = new IncrementalCoverageResolver();
+		resolver.updateCoverage(Collections.emptySet(), new HashSet<>(Arrays.asList(FOO_RUN, BAR_STOP)));
+		resolver.updateMethods(Collections.emptySet(), union(FOO_METHODS, BAR_METHODS));
+
+		assertThat(resolver.updateMethods(Collections.singleton("org.example.Foo"), Collections.emptySet()).isEmpty())
+				.isTrue();
+		assertThat(resolver.getResult())
+				.isEqualTo(CoverageResolver.with(Collections.singleton(BAR_STOP)).resolve(BAR_METHODS));
+	}
+
+	private static Set<ParsedMethod> union(Set<ParsedMethod> first, Set<ParsedMethod> second) {
+		Set<ParsedMethod> union = new HashSet<>(first);
+		union.addAll(second);
+		return union;
+	}
+}
@@ -0,0 +1,49 @@
+package com.scheible.testgapanalysis.jacoco.resolver;
+
+import static java.util.Arrays.asList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.scheible.testgapanalysis.jacoco.InstrumentedMethod;
+
+/**
+ *
+ * @author sj
+ */
+public class TypeCoverageIndexTest {
+
+	private final InstrumentedMethod constructor = new InstrumentedMethod("a/Foo", "<init>", "(I)V", 3, 1);
+	private final InstrumentedMethod staticInitializer = new InstrumentedMethod("a/Foo", "<clinit>", "()V", 4, 1);
+	private final InstrumentedMethod doIt = new InstrumentedMethod("a/Foo", "doIt", "(I)V", 10, 1);
+	private final InstrumentedMethod doItOverload = new InstrumentedMethod("a/Foo", "doIt", "()V", 11, 1);
+	private final InstrumentedMethod doItOther = new InstrumentedMethod("a/Foo", "doIt", "(J)V", 20, 1);
+	private final InstrumentedMethod firstLambda = new InstrumentedMethod("a/Foo", "lambda$doIt$0", "()V", 12, 1);
+	private final InstrumentedMethod secondLambda = new InstrumentedMethod("a/Foo", "lambda$doIt$1", "()V", 14, 1);
+
+	private final TypeCoverageIndex index = TypeCoverageIndex.of(asList(this.constructor, this.staticInitializer,
+			this.doIt, this.doItOverload, this.doItOther, this.firstLambda, this.secondLambda));
+
+	@Test
+	public void testFindNonLambdaMethodsByNameArityAndLineRange() {
+		assertThat(this.index.findNonLambdaMethods("doIt", 1, 9, 15)).containsOnly(this.doIt);
+		assertThat(this.index.findNonLambdaMethods("doIt", 1, 9, 20)).containsOnly(this.doIt, this.doItOther);
+		assertThat(this.index.findNonLambdaMethods("doIt", 0, 9, 15)).containsOnly(this.doItOverload);
+		assertThat(this.index.findNonLambdaMethods("doIt", 2, 1, 100)).isEmpty();
+	}
+
+	@Test
+	public void testFindLambdaMethodsByLineRange() {
+		assertThat(this.index.findLambdaMethods(12, 14)).containsExactly(this.firstLambda, this.secondLambda);
+		assertThat(this.index.findLambdaMethods(13, 13)).isEmpty();
+	}
+
+	@Test
+	public void testConstructorsAndStaticInitializers() {
+		assertThat(this.index.getConstructors()).containsOnly(this.constructor);
+		assertThat(this.index.findConstructors("Foo", asList("int"))).containsOnly(this.constructor);
+		assertThat(this.index.findConstructors("Foo", asList("long"))).isEmpty();
+		assertThat(this.index.getStaticInitializers()).containsOnly(this.staticInitializer);
+	}
+}
@@ -0,0 +1,46 @@
+package com.scheible.testgapanalysis.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ *
+ * @author sj
+ */
+public class CachingJavaParserTest {
+
+	private static final String CODE = "class Test {\n" + //
+			"	Test(String name) {\n" + //
+			"		Runnable runnable = () -> {};\n" + //
+			"	}\n" + //
+			"}";
+
+	@TempDir
+	public File cacheDir;
+
+	@Test
+	public void testCachedMethodsAreEqualToParsedMethods() {
+		Set<ParsedMethod> parsedMethods = new JavaParser().getMethods(CODE, "path");
+
+		assertThat(new CachingJavaParser(this.cacheDir).getMethods(CODE, "path")).isEqualTo(parsedMethods);
+		assertThat(this.cacheDir.list()).hasSize(1);
+		assertThat(new CachingJavaParser(this.cacheDir).getMethods(CODE, "path")).isEqualTo(parsedMethods);
+	}
+
+	@Test
+	public void testUnparsableCodeIsNotCached() {
+		assertThat(new CachingJavaParser(this.cacheDir).getMethods("class {", "path")).isEmpty();
+		assertThat(this.cacheDir.list()).isEmpty();
+	}
+
+	@Test
+	public void testHashIsGitBlobId() {
+		// same as 'echo -n "test content" | git hash-object --stdin'
+		assertThat(CachingJavaParser.hash("test content")).isEqualTo("08cf6101416f0ce0dda3c80e627f333854c4085c");
+	}
+}
@@ -14,6 +14,7 @@ import java.io.IOException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
@@ -173,6 +174,20 @@ public class JavaParserTest {
 				});
 	}
 
+	@Test
+	public void testParserInstanceIsReusableConcurrently() {
+		JavaParser javaParser = new JavaParser();
+		String code = "class Test {\n" + //
+				"	void doIt() {\n" + //
+				"		Runnable runnable = () -> {};\n" + //
+				"	}\n" + //
+				"}";
+		Set<ParsedMethod> expected = javaParser.getMethods(code, "path");
+
+		assertThat(IntStream.range(0, 100).parallel().mapToObj(i -> javaParser.getMethods(code, "path")))
+				.containsOnly(expected);
+	}
+
 	public static class MethodMasking { // #debug
 
 		public String doIt(String arg1, boolean isDebugMode) {
@@ -192,6 +207,20 @@ public class JavaParserTest {
 						+ "}");
 	}
 
+	@Test
+	public void testCommentsThatAreNotAttributedToAnyNodeAreMasked() {
+		String code = "class Test {\n" + //
+				"	void doIt() {\n" + //
+				"		Stream.of(\"a\").map(s -> s.trim()\n" + //
+				"				.toString()) // not attributed\n" + //
+				"				.count();\n" + //
+				"	}\n" + //
+				"}";
+
+		assertThat(new JavaParser().getMethods(code, "path")).filteredOn(pm -> pm.getName().equals("doIt"))
+				.extracting(ParsedMethod::getRelevantCode).singleElement().asString().doesNotContain("attributed");
+	}
+
 	private Stream<AssertableMethod> parseMethods(Class<?> clazz, MethodType... filterTypes) throws IOException {
 		return parseJavaTestSource(clazz, filterTypes).stream().map(JavaParserTest::toAssertableMethod);
 	}
@@ -199,4 +228,54 @@ public class JavaParserTest {
 	private static AssertableMethod toAssertableMethod(ParsedMethod parsedMethod) {
 		return new AssertableMethod(parsedMethod, parsedMethod.getMethodType(), parsedMethod.getName());
 	}
+
+	@Test
+	public void testLineRangeFilter() {
+		String code = "package test;\n" + //
+				"class Test {\n" + //
+				"	void first() {\n" + //
+				"		\"\".trim();\n" + //
+				"	}\n" + //
+				"	void second() {\n" + //
+				"		Runnable runnable = () -> \"\".trim();\n" + //
+				"	}\n" + //
+				"}";
+
+		assertThat(new JavaParser().getMethods(code, "Test.java", overlapping(4))).extracting(ParsedMethod::getName)
+				.containsOnly("first");
+		assertThat(new JavaParser().getMethods(code, "Test.java", overlapping(6))).extracting(ParsedMethod::getName)
+				.containsOnly("second", "lambda");
+		assertThat(new JavaParser().getMethods(code, "Test.java", overlapping(2))).hasSize(3);
+	}
+
+	private static LineRangeFilter overlapping(int line) {
+		return (firstLine, lastLine) -> firstLine <= line && lastLine >= line;
+	}
+
+	@Test
+	public void testHaveSameMethods() {
+		String previous = "package test;\n" + //
+				"import java.util.List;\n" + //
+				"class Test {\n" + //
+				"	void doIt() {\n" + //
+				"		\"\".trim();\n" + //
+				"	}\n" + //
+				"}";
+		String reformatted = "package test;\n" + //
+				"\n" + //
+				"import java.util.Set;\n" + //
+				"class Test {\n" + //
+				"	// a comment\n" + //
+				"	void  doIt() {\n" + //
+				"		\"\".trim(); /* another comment */\n" + //
+				"	}\n" + //
+				"}";
+
+		JavaParser javaParser = new JavaParser();
+		assertThat(javaParser.haveSameMethods(previous, reformatted)).isTrue();
+		assertThat(javaParser.haveSameMethods(previous, previous.replace("trim", "strip"))).isFalse();
+		assertThat(javaParser.haveSameMethods(previous, previous.replace("List", "List.*"))).isTrue();
+		assertThat(javaParser.haveSameMethods(previous, previous.replace("List", "class"))).isFalse();
+		assertThat(javaParser.haveSameMethods(previous, previous.replace("{\n\t\t", "{ "))).isFalse();
+	}
 }
@@ -0,0 +1,30 @@
+package com.scheible.testgapanalysis.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+public class LineIndexTest {
+
+	@Test
+	public void testLineSeparators() {
+		LineIndex lineIndex = LineIndex.of("a\r\nbb\nc\rd\u2028e");
+
+		assertThat(lineIndex.getLineCount()).isEqualTo(5);
+		assertThat(lineIndex.getLineStart(2)).isEqualTo(3);
+		assertThat(lineIndex.getLineEnd(2)).isEqualTo(5);
+		assertThat(lineIndex.getLineStart(5)).isEqualTo(10);
+		assertThat(lineIndex.getLineEnd(5)).isEqualTo(11);
+	}
+
+	@Test
+	public void testTrailingLineSeparator() {
+		assertThat(LineIndex.of("a\n").getLineCount()).isEqualTo(1);
+		assertThat(LineIndex.of("a\n\n").getLineCount()).isEqualTo(2);
+		assertThat(LineIndex.of("").getLineCount()).isEqualTo(0);
+	}
+}
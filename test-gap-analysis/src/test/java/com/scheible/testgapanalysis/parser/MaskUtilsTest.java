@@ -49,6 +49,13 @@ public class MaskUtilsTest {
 				true)).startsWith("void ####()").endsWith("}\n");
 	}
 
+	@Test
+	public void testWhitespaceIsCollapsed() {
+		assertThat(MaskUtils.apply("void  test() {\t\t doIt( );\n\n}",
+				new Range(new Position(1, 1), new Position(3, 1)), emptyList()))
+						.isEqualTo("void test() { doIt( );\n}\n");
+	}
+
 	@Test
 	public void testMultilineMask() {
 		assertThat(MaskUtils.apply(TEST_CLASS, TEST_METHOD_RANGE,
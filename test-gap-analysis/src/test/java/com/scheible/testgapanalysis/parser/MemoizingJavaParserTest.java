@@ -0,0 +1,59 @@
+package com.scheible.testgapanalysis.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+public class MemoizingJavaParserTest {
+
+	private static final String CODE = "class Test {\n" + //
+			"	void run() {\n" + //
+			"	}\n" + //
+			"}";
+
+	private final AtomicInteger parseCount = new AtomicInteger();
+
+	private final JavaParser countingParser = new JavaParser() {
+
+		@Override
+		public Set<ParsedMethod> getMethods(String code, String path) {
+			MemoizingJavaParserTest.this.parseCount.incrementAndGet();
+			return super.getMethods(code, path);
+		}
+	};
+
+	@Test
+	public void testSameCodeIsParsedOnlyOnce() {
+		MemoizingJavaParser parser = new MemoizingJavaParser(this.countingParser);
+
+		Set<ParsedMethod> parsedMethods = parser.getMethods(CODE, "path");
+		assertThat(parser.getMethods(CODE, "other-path")).isEqualTo(parsedMethods);
+		assertThat(this.parseCount).hasValue(1);
+	}
+
+	@Test
+	public void testLeastRecentlyUsedCodeIsEvicted() {
+		MemoizingJavaParser parser = new MemoizingJavaParser(this.countingParser, 1);
+
+		parser.getMethods(CODE, "path");
+		parser.getMethods(CODE.replace("run", "stop"), "path");
+		parser.getMethods(CODE, "path");
+		assertThat(this.parseCount).hasValue(3);
+	}
+
+	@Test
+	public void testUnparsableCodeIsNotKept() {
+		MemoizingJavaParser parser = new MemoizingJavaParser(this.countingParser);
+
+		assertThat(parser.getMethods("class {", "path")).isEmpty();
+		assertThat(parser.getMethods("class {", "path")).isEmpty();
+		assertThat(this.parseCount).hasValue(2);
+	}
+}
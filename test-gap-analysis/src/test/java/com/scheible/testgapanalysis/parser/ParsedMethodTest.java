@@ -28,6 +28,40 @@ public class ParsedMethodTest {
 				.isEqualTo("InnerClass");
 	}
 
+	@Test
+	public void testCodeLineRange() {
+		ParsedMethod method = ParsedMethod.builder().setMethodType(MethodType.METHOD).setTopLevelTypeFqn("foo.Bar")
+				.setScope(Arrays.asList()).setName("doIt").setRelevantCode("").setCodeLines(10, 12).setCodeColumn(0)
+				.setEmpty(false).setParameterCount(0).build();
+
+		assertThat(method.containsLine(9)).isFalse();
+		assertThat(method.containsLine(10)).isTrue();
+		assertThat(method.containsLine(12)).isTrue();
+		assertThat(method.containsLine(13)).isFalse();
+		assertThat(method.getCodeLines()).containsExactly(10, 11, 12);
+	}
+
+	@Test
+	public void testFingerprintIgnoresCodePositions() {
+		ParsedMethod method = withCode("foo();", 10);
+		ParsedMethod movedMethod = withCode("foo();", 20);
+
+		assertThat(method.getFingerprint()).isEqualTo(movedMethod.getFingerprint());
+		assertThat(method).isNotEqualTo(movedMethod);
+	}
+
+	@Test
+	public void testFingerprintOfChangedCode() {
+		assertThat(withCode("foo();", 10).getFingerprint()).isNotEqualTo(withCode("bar();", 10).getFingerprint());
+		assertThat(withCode("foo();", 10)).isEqualTo(withCode("foo();", 10)).hasSameHashCodeAs(withCode("foo();", 10));
+	}
+
+	private static ParsedMethod withCode(String relevantCode, int codeLine) {
+		return ParsedMethod.builder().setMethodType(MethodType.METHOD).setTopLevelTypeFqn("foo.Bar")
+				.setScope(Arrays.asList()).setName("doIt").setRelevantCode(relevantCode)
+				.setCodeLines(Arrays.asList(codeLine)).setCodeColumn(0).setEmpty(false).setParameterCount(0).build();
+	}
+
 	private static ParsedMethod withTopLevelTypeFqn(String topLevelTypeFqn, String... scope) {
 		return ParsedMethod.builder().setMethodType(MethodType.CONSTRUCTOR).setTopLevelTypeFqn(topLevelTypeFqn)
 				.setScope(Arrays.asList(scope)).setName("").setRelevantCode("").setCodeLines(Arrays.asList(42))
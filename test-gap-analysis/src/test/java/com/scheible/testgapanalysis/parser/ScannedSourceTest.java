@@ -0,0 +1,44 @@
+package com.scheible.testgapanalysis.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author sj
+ */
+public class ScannedSourceTest {
+
+	@Test
+	public void testCommentsAndWhitespaceAreMasked() {
+		assertThat(ScannedSource.of("class Test {\n\t// comment\n\tvoid  doIt() { /* comment */ run(); }\n\n}\n"))
+				.hasValueSatisfying(scannedSource -> assertThat(scannedSource.getCode())
+						.isEqualTo("class Test {\nvoid doIt() { run(); }\n}\n"));
+	}
+
+	@Test
+	public void testCommentsInLiteralsAreKept() {
+		assertThat(ScannedSource.of("class Test {\n\tString text = \"// \\\" /*\";\n\tchar c = '\"';\n}"))
+				.hasValueSatisfying(scannedSource -> assertThat(scannedSource.getCode())
+						.isEqualTo("class Test {\nString text = \"// \\\" /*\";\nchar c = '\"';\n}\n"));
+	}
+
+	@Test
+	public void testImportsAreMasked() {
+		assertThat(ScannedSource.of(
+				"package test;\nimport  java.util.List;\nimport static java.util.Collections.*;\n" + "class Test {\n}"))
+						.hasValueSatisfying(scannedSource -> {
+							assertThat(scannedSource.getCode()).isEqualTo("package test;\nclass Test {\n}\n");
+							assertThat(scannedSource.getImports()).containsOnly("import java.util.List;",
+									"import static java.util.Collections.*;");
+						});
+	}
+
+	@Test
+	public void testUnreliableSourcesAreNotScanned() {
+		assertThat(ScannedSource.of("class Test { /* not terminated }")).isEmpty();
+		assertThat(ScannedSource.of("class Test { String text = \"not terminated; }")).isEmpty();
+		assertThat(ScannedSource.of("class Test { char c = '\\u0041'; }")).isEmpty();
+	}
+}